@@ -2,8 +2,10 @@ package com.hemant.productcategoryservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProductCategoryServiceApplication {
 
     public static void main(String[] args) {
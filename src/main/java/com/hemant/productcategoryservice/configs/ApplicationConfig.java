@@ -1,16 +1,30 @@
 package com.hemant.productcategoryservice.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.ProductCacheCodec;
+import com.hemant.productcategoryservice.service.cachingService.ProductLocalCache;
+import com.hemant.productcategoryservice.service.indexingService.ProductIndexSync;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class ApplicationConfig {
@@ -26,6 +40,25 @@ public class ApplicationConfig {
         return redisTemplate;
     }
 
+    // Template for the PRODUCTS_<id> keyspace. Its value codec is picked by cache.codec.products:
+    // "binary" (compact, schema-versioned) or "json" (plain Jackson, easy to read with redis-cli)
+    @Bean
+    public RedisTemplate<String, Product> productRedisTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                               ObjectMapper objectMapper,
+                                                               @Value("${cache.codec.products:binary}") String codec,
+                                                               @Value("${cache.codec.compression-threshold:512}") int compressionThreshold) {
+        RedisSerializer<Product> valueSerializer = switch (codec) {
+            case "binary" -> new ProductCacheCodec(compressionThreshold);
+            case "json" -> new Jackson2JsonRedisSerializer<>(objectMapper, Product.class);
+            default -> throw new IllegalArgumentException("Unknown product cache codec: " + codec);
+        };
+        RedisTemplate<String, Product> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(valueSerializer);
+        return redisTemplate;
+    }
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
@@ -33,4 +66,28 @@ public class ApplicationConfig {
                 .setAddress("redis://localhost:6379"); // default Redis setup
         return Redisson.create(config);
     }
+
+    // Shared by all parallel searches, kept apart from the common pool so they don't compete with parallel streams
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool searchForkJoinPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Background reloads of cache entries close to expiry; when the queue is full, reloads are skipped
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor cacheRefreshExecutor(@Value("${cache.refresh.threads:2}") int threads) {
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000));
+    }
+
+    // Delivers product invalidations and index changes published by other nodes to the local product cache and
+    // the in-memory indexes
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory, ProductLocalCache productLocalCache,
+                                                                       ProductIndexSync productIndexSync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(productLocalCache, new ChannelTopic(ProductLocalCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(productIndexSync, new ChannelTopic(ProductIndexSync.CHANGES_CHANNEL));
+        return container;
+    }
 }
@@ -1,25 +1,50 @@
 package com.hemant.productcategoryservice.controllers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hemant.productcategoryservice.dtos.BatchProductRequestDto;
+import com.hemant.productcategoryservice.dtos.BatchProductResponseDto;
 import com.hemant.productcategoryservice.dtos.CategoryResponseDto;
+import com.hemant.productcategoryservice.dtos.CursorPageResponseDto;
 import com.hemant.productcategoryservice.dtos.GetAllProductResponseDto;
 import com.hemant.productcategoryservice.dtos.InventoryUpdateProducts;
+import com.hemant.productcategoryservice.dtos.LocalCacheStatsDto;
 import com.hemant.productcategoryservice.dtos.ProductResponseDto;
 import com.hemant.productcategoryservice.models.Category;
 import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.CursorCodec;
+import com.hemant.productcategoryservice.service.ProductExportService;
 import com.hemant.productcategoryservice.service.ProductService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final ProductService productService;
-    public ProductController(ProductService productService) {
+    private final ProductExportService productExportService;
+    private final ObjectMapper objectMapper;
+    public ProductController(ProductService productService, ProductExportService productExportService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/")
@@ -36,6 +61,28 @@ public class ProductController {
         return ResponseEntity.ok(productResponseDto);
     }
 
+    // Several products in one call; ids with no product are listed in missingIds instead of failing the request
+    @PostMapping("/batch")
+    public ResponseEntity<BatchProductResponseDto> getProductsBatch(@RequestBody BatchProductRequestDto request) {
+        List<Long> productIds = request.getIds();
+        if (productIds == null || productIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain at most " + MAX_BATCH_SIZE + " product IDs");
+        }
+        Map<Long, Product> productsById = productService.getProductsById(productIds);
+        BatchProductResponseDto responseDto = new BatchProductResponseDto();
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (Long productId : productIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                responseDto.getProducts().add(from(product));
+            } else {
+                missingIds.add(productId);
+            }
+        }
+        responseDto.getMissingIds().addAll(missingIds);
+        return ResponseEntity.ok(responseDto);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<ProductResponseDto> update(@PathVariable("id") Long productId, @RequestBody Product product) throws JsonProcessingException {
         Product updatedProduct = productService.updateProduct(productId, product);
@@ -72,6 +119,47 @@ public class ProductController {
         return ResponseEntity.ok(responseDto);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponseDto> getProductsAfter(@RequestParam(value = "cursor", required = false) String cursor, @RequestParam("size") Integer pageSize) {
+        Window<Product> products = productService.getProductsAfter(cursor, pageSize);
+        return ResponseEntity.ok(from(products));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<LocalCacheStatsDto> getLocalCacheStats() {
+        return ResponseEntity.ok(productService.getLocalCacheStats());
+    }
+
+    // Whole catalog (or one category) as newline-delimited JSON, written while the rows are read.
+    // No search export: /search ranks its matches in memory, so nothing could be written before all of them are built.
+    // Bounded by spring.mvc.async.request-timeout; a timed-out export fails its next write and releases the connection.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "categoryId", required = false) Long categoryId) {
+        ObjectWriter writer = objectMapper.writerFor(ProductResponseDto.class);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            productExportService.exportProducts(categoryId, product -> {
+                try {
+                    out.write(writer.writeValueAsBytes(from(product)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // converting a keyset Window of products to CursorPageResponseDto
+    public static CursorPageResponseDto from(Window<Product> products) {
+        CursorPageResponseDto responseDto = new CursorPageResponseDto();
+        responseDto.setProducts(products.getContent().stream().map(ProductController::from).toList());
+        responseDto.setNextCursor(CursorCodec.nextCursor(products));
+        responseDto.setHasNext(products.hasNext());
+        return responseDto;
+    }
+
     // converting Product to ProductResponseDto
     public static ProductResponseDto from(Product product) {
         ProductResponseDto productResponseDto = new ProductResponseDto();
@@ -3,12 +3,17 @@ package com.hemant.productcategoryservice.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemant.productcategoryservice.dtos.CursorPageResponseDto;
 import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SearchCacheStatsDto;
 import com.hemant.productcategoryservice.dtos.SearchResponseDto;
+import com.hemant.productcategoryservice.dtos.SearchResult;
 import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
 import com.hemant.productcategoryservice.models.Product;
 import com.hemant.productcategoryservice.service.SearchService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -43,6 +48,44 @@ public class SearchController {
         return ResponseEntity.ok(response);
     }
 
+    // Chosen over search when fuzzy=true: title words may contain typos
+    @GetMapping(value = "/", params = {"fuzzy=true", "facets!=true"})
+    public ResponseEntity<SearchResponseDto> fuzzySearch(
+            @RequestParam("query") String query,
+            @RequestParam("filters") String filtersJson,
+            @RequestParam("sortBy") SortingCriteria sortingCriteria,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam("pageNumber") int pageNumber
+    ) throws JsonProcessingException {
+        List<FilterDto> filters = objectMapper.readValue(filtersJson, new TypeReference<>() {});
+        Page<Product> productsPage = searchService.fuzzySearch(query, filters, sortingCriteria, pageSize, pageNumber);
+        SearchResponseDto response = new SearchResponseDto();
+        response.setProducts(productsPage.map(ProductController::from));
+        return ResponseEntity.ok(response);
+    }
+
+    // Chosen over search when facets=true: also returns category and price-bucket counts for the whole match set
+    @GetMapping(value = "/", params = "facets=true")
+    public ResponseEntity<SearchResponseDto> searchWithFacets(
+            @RequestParam("query") String query,
+            @RequestParam("filters") String filtersJson,
+            @RequestParam("sortBy") SortingCriteria sortingCriteria,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam("pageNumber") int pageNumber,
+            @RequestParam(value = "priceBuckets", required = false) List<Double> priceBuckets,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy
+    ) throws JsonProcessingException {
+        List<FilterDto> filters = objectMapper.readValue(filtersJson, new TypeReference<>() {});
+        double[] priceBucketBounds = priceBuckets == null
+                ? new double[0]
+                : priceBuckets.stream().mapToDouble(Double::doubleValue).toArray();
+        SearchResult searchResult = searchService.searchWithFacets(query, filters, sortingCriteria, pageSize, pageNumber, priceBucketBounds, fuzzy);
+        SearchResponseDto response = new SearchResponseDto();
+        response.setProducts(searchResult.getProducts().map(ProductController::from));
+        response.setFacets(searchResult.getFacets());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/byCategory")
     public ResponseEntity<SearchResponseDto> simpleSearch(
             @RequestParam("query") String query,
@@ -56,4 +99,29 @@ public class SearchController {
         response.setProducts(productsPage.map(ProductController::from));
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/byCategory/cursor")
+    public ResponseEntity<CursorPageResponseDto> simpleSearchAfter(
+            @RequestParam("query") String query,
+            @RequestParam("categoryId") Long categoryId,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sortingAttribute", defaultValue = "id") String sortingAttribute
+    ) {
+        Window<Product> products = searchService.simpleSearchAfter(query, categoryId, pageSize, cursor, sortingAttribute);
+        return ResponseEntity.ok(ProductController.from(products));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(searchService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SearchCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(searchService.getCacheStats());
+    }
 }
@@ -0,0 +1,13 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchProductRequestDto {
+    private List<Long> ids = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchProductResponseDto {
+    // in request order
+    private List<ProductResponseDto> products = new ArrayList<>();
+    // requested ids with no product behind them
+    private List<Long> missingIds = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// What a search page is cached as: ids only, product bodies come from the per-product cache
+@Getter
+@Setter
+public class CachedSearchResult {
+    private List<Long> productIds;
+    private long totalElements;
+    private SearchFacetsDto facets;
+}
@@ -0,0 +1,12 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CategoryFacetDto {
+    private Long categoryId;
+    private String title;
+    private long count;
+}
@@ -0,0 +1,15 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CursorPageResponseDto {
+    private List<ProductResponseDto> products;
+    // Pass back as `cursor` to get the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -10,4 +10,6 @@ import java.util.List;
 public class FilterDto {
     private String key;
     private List<String> values;
+    // Match values regardless of letter case; defaults to the exact match used so far
+    private boolean ignoreCase;
 }
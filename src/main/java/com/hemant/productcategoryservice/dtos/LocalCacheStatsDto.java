@@ -0,0 +1,16 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LocalCacheStatsDto {
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private int entries;
+    private long estimatedBytes;
+    private long maxBytes;
+}
@@ -0,0 +1,13 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PriceBucketDto {
+    // null means unbounded on that side; min is inclusive, max exclusive
+    private Double min;
+    private Double max;
+    private long count;
+}
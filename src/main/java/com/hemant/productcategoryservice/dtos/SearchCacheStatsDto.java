@@ -0,0 +1,15 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SearchCacheStatsDto {
+    // Since this node started
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    // Across all nodes, estimated
+    private long distinctKeysToday;
+}
@@ -0,0 +1,13 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SearchFacetsDto {
+    private List<CategoryFacetDto> categories;
+    private List<PriceBucketDto> priceBuckets;
+}
@@ -8,4 +8,5 @@ import org.springframework.data.domain.Page;
 @Setter
 public class SearchResponseDto {
     Page<ProductResponseDto> products;
+    SearchFacetsDto facets;
 }
@@ -0,0 +1,14 @@
+package com.hemant.productcategoryservice.dtos;
+
+import com.hemant.productcategoryservice.models.Product;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+@Getter
+@Setter
+public class SearchResult {
+    private Page<Product> products;
+    // Only filled when facets were requested
+    private SearchFacetsDto facets;
+}
@@ -3,4 +3,5 @@ package com.hemant.productcategoryservice.dtos;
 public enum SortingCriteria {
     PRICE_LOW_TO_HIGH,
     PRICE_HIGH_TO_LOW,
-}
\ No newline at end of file
+    RELEVANCE,
+}
@@ -0,0 +1,16 @@
+package com.hemant.productcategoryservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    private String text;
+    // Popularity of the title, from how often its products are read; higher ranks first
+    private long weight;
+}
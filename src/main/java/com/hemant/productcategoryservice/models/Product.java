@@ -2,14 +2,23 @@ package com.hemant.productcategoryservice.models;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity(name = "products")
+@Table(indexes = {
+        @Index(name = "idx_products_price", columnList = "price"),
+        // One per sort field of /search/byCategory: the category filter and the ORDER BY are both served by the index
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_category_title", columnList = "category_id, title"),
+        @Index(name = "idx_products_category_created_at", columnList = "category_id, created_at")
+})
 public class Product extends BaseModel {
     private String title;
     private Double price;
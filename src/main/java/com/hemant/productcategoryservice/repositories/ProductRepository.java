@@ -1,17 +1,58 @@
 package com.hemant.productcategoryservice.repositories;
 
 import com.hemant.productcategoryservice.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     List<Product> findByTitleContaining(String query);
 
     Page<Product> findAllByTitleContainingAndCategory_Id(String query, Long categoryId, Pageable pageable);
+
+    // Keyset (seek) pagination: WHERE (sort keys) > (last row's keys) ORDER BY sort LIMIT n, no OFFSET and no count
+    default Window<Product> scroll(Specification<Product> specification, KeysetScrollPosition position, Sort sort, int limit) {
+        return findBy(specification, query -> query.sortBy(sort).limit(limit).scroll(position));
+    }
+
+    // Keyset batches for the index build: no OFFSET, so every batch costs the same however far into the table
+    @Query("select p from products p left join fetch p.category where p.id > :afterId order by p.id")
+    List<Product> findBatchAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select p from products p left join fetch p.category c where c.id = :categoryId and p.id > :afterId order by p.id")
+    List<Product> findCategoryBatchAfter(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select p.id from products p where p.category.id = :categoryId and p.id > :afterId order by p.id")
+    List<Long> findCategoryIdsAfter(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Row-by-row reads for exports: the driver fetches 500 rows at a time and Hibernate skips dirty-checking snapshots
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from products p left join fetch p.category order by p.id")
+    Stream<Product> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from products p left join fetch p.category c where c.id = :categoryId order by p.id")
+    Stream<Product> streamAllByCategoryId(@Param("categoryId") Long categoryId);
 }
@@ -0,0 +1,157 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import com.hemant.productcategoryservice.service.cachingService.ProductAccessRecorder;
+import com.hemant.productcategoryservice.service.cachingService.ProductLocalCache;
+import com.hemant.productcategoryservice.service.indexingService.ProductIndexSync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs before the application reports ready to take traffic: builds the in-memory indexes and, at the same
+// time, loads the hottest products into the Redis and local caches so the first requests after a deploy
+// don't all go to the database. Cache warming stops at the time or memory budget, whichever comes first;
+// the indexes are always built in full since search depends on them.
+// The instance registers with Eureka as STARTING (eureka.instance.initial-status) and is only switched to UP
+// here, so other services don't route to it before the warm-up is done.
+@Component
+public class CatalogWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    private final ProductService productService;
+    private final ProductIndexSync productIndexSync;
+    private final ProductAccessRecorder productAccessRecorder;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final boolean enabled;
+    private final List<Long> configuredProductIds;
+    private final int topN;
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration timeBudget;
+    private final long maxBytes;
+
+    public CatalogWarmup(ProductService productService,
+                         ProductIndexSync productIndexSync,
+                         ProductAccessRecorder productAccessRecorder,
+                         ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                         @Value("${cache.warmup.enabled:true}") boolean enabled,
+                         @Value("${cache.warmup.product-ids:}") List<Long> configuredProductIds,
+                         @Value("${cache.warmup.top-n:5000}") int topN,
+                         @Value("${cache.warmup.batch-size:200}") int batchSize,
+                         @Value("${cache.warmup.parallelism:4}") int parallelism,
+                         @Value("${cache.warmup.time-budget:PT30S}") Duration timeBudget,
+                         @Value("${cache.warmup.max-bytes:16777216}") long maxBytes) {
+        this.productService = productService;
+        this.productIndexSync = productIndexSync;
+        this.productAccessRecorder = productAccessRecorder;
+        this.applicationInfoManager = applicationInfoManager;
+        this.enabled = enabled;
+        this.configuredProductIds = configuredProductIds;
+        this.topN = topN;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.timeBudget = timeBudget;
+        this.maxBytes = maxBytes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startTime = System.currentTimeMillis();
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        // one extra thread so the index build never waits for a cache batch
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism + 1);
+        try {
+            Future<?> indexes = executor.submit(productIndexSync::loadIndexes);
+            if (enabled) {
+                warmCaches(executor, deadline, startTime);
+            }
+            indexes.get();
+            applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Loading the product indexes failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmCaches(ExecutorService executor, long deadline, long startTime) throws InterruptedException {
+        List<Long> productIds;
+        try {
+            productIds = productIdsToWarm();
+        } catch (RuntimeException e) {
+            logger.warn("Skipping cache warm-up, hot products could not be read", e);
+            return;
+        }
+
+        AtomicLong warmedBytes = new AtomicLong();
+        AtomicInteger warmedProducts = new AtomicInteger();
+        List<Future<?>> batches = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            batches.add(executor.submit(() -> {
+                // Batches already running when a budget runs out still finish, later ones don't start
+                if (warmedBytes.get() >= maxBytes || System.nanoTime() >= deadline) {
+                    return;
+                }
+                for (Product product : productService.warmProducts(batch)) {
+                    warmedBytes.addAndGet(ProductLocalCache.estimateBytes(product));
+                    warmedProducts.incrementAndGet();
+                }
+            }));
+        }
+
+        String outcome = "complete";
+        for (Future<?> batch : batches) {
+            try {
+                batch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                outcome = "time budget reached";
+                break;
+            } catch (ExecutionException e) {
+                logger.warn("Cache warm-up batch failed", e.getCause());
+            }
+        }
+        for (Future<?> batch : batches) {
+            batch.cancel(true);
+        }
+        if (warmedBytes.get() >= maxBytes) {
+            outcome = "memory budget reached";
+        } else if (System.nanoTime() >= deadline) {
+            outcome = "time budget reached";
+        }
+        logger.info("Warmed {} of {} products (~{} bytes) in {} ms, {}",
+                warmedProducts.get(), productIds.size(), warmedBytes.get(), System.currentTimeMillis() - startTime, outcome);
+    }
+
+    // Configured ids first, then the most read products, at most topN in all
+    private List<Long> productIdsToWarm() {
+        Set<Long> productIds = new LinkedHashSet<>(configuredProductIds);
+        if (productIds.size() < topN) {
+            productIds.addAll(productAccessRecorder.hottest(topN));
+        }
+        return new ArrayList<>(productIds).subList(0, Math.min(topN, productIds.size()));
+    }
+}
@@ -4,6 +4,7 @@ import com.hemant.productcategoryservice.exceptions.CategoryAlreadyExistsExcepti
 import com.hemant.productcategoryservice.exceptions.CategoryDoesNotExistException;
 import com.hemant.productcategoryservice.models.Category;
 import com.hemant.productcategoryservice.repositories.CategoryRepository;
+import com.hemant.productcategoryservice.service.indexingService.ProductIndexSync;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -12,8 +13,12 @@ import org.springframework.stereotype.Service;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final ProductIndexSync productIndexSync;
+    private final ProductService productService;
+    public CategoryService(CategoryRepository categoryRepository, ProductIndexSync productIndexSync, ProductService productService) {
         this.categoryRepository = categoryRepository;
+        this.productIndexSync = productIndexSync;
+        this.productService = productService;
     }
 
     public Category createCategory(Category category) {
@@ -35,8 +40,15 @@ public class CategoryService {
         }
         Category existingCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new CategoryDoesNotExistException("Category with id " + categoryId + " does not exist"));
+        boolean renamed = !category.getTitle().equals(existingCategory.getTitle());
         existingCategory.setTitle(category.getTitle());
-        return categoryRepository.save(existingCategory);
+        Category savedCategory = categoryRepository.save(existingCategory);
+        // Suggestions, the other indexes and the cached products keep the category title of each product
+        if (renamed) {
+            productIndexSync.categoryChanged(categoryId);
+            productService.categoryRenamed(categoryId);
+        }
+        return savedCategory;
     }
 
     public boolean deleteCategory(Long categoryId) {
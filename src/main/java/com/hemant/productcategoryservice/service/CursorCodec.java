@@ -0,0 +1,104 @@
+package com.hemant.productcategoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Opaque cursors for keyset pagination: the sort key values of the last row, as base64url JSON
+public class CursorCodec {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static KeysetScrollPosition decode(String cursor, Set<String> expectedKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            keys = objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {});
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (!keys.keySet().equals(expectedKeys)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sorting");
+        }
+        // JSON loses the number types, restore the ones the entity declares
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            typedKeys.put(key.getKey(), toPropertyType(key.getKey(), key.getValue()));
+        }
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    // Cursor of the row after the last one in the window, or null when this was the last window
+    public static String nextCursor(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        // Dates go in as ISO-8601 instants, which keep the sub-millisecond part of a timestamp column
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+            keys.put(key.getKey(), key.getValue() instanceof Date date ? toInstant(date).toString() : key.getValue());
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(keys);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    // An edited cursor with a value of the wrong type is rejected here instead of failing in the query
+    private static Object toPropertyType(String property, Object value) {
+        return switch (property) {
+            case "id" -> {
+                if (!(value instanceof Integer || value instanceof Long)) {
+                    throw new IllegalArgumentException("Invalid cursor value for " + property);
+                }
+                yield ((Number) value).longValue();
+            }
+            case "price" -> {
+                if (!(value instanceof Number number)) {
+                    throw new IllegalArgumentException("Invalid cursor value for " + property);
+                }
+                yield number.doubleValue();
+            }
+            case "title" -> {
+                if (value != null && !(value instanceof String)) {
+                    throw new IllegalArgumentException("Invalid cursor value for " + property);
+                }
+                yield value;
+            }
+            case "createdAt" -> {
+                if (value == null) {
+                    yield null;
+                }
+                try {
+                    yield Timestamp.from(Instant.parse((String) value));
+                } catch (ClassCastException | DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid cursor value for " + property);
+                }
+            }
+            default -> value;
+        };
+    }
+
+    private static Instant toInstant(Date date) {
+        return date instanceof Timestamp timestamp ? timestamp.toInstant() : date.toInstant();
+    }
+}
@@ -0,0 +1,106 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.filteringService.FacetCounter;
+import com.hemant.productcategoryservice.service.sortingService.Sorter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+// Filters candidates, counts facets and picks the first `limit` matches in sorted order. Large candidate
+// sets are split into shards that each do all three on the fork/join pool; shard results are merged pairwise.
+@Component
+public class ParallelSearchExecutor {
+
+    // Result of one pass: number of matches, the first `limit` of them in order, and their facets if requested
+    public record SearchPass(int matchCount, List<Product> top, FacetCounter facets) {}
+
+    private final ForkJoinPool searchForkJoinPool;
+    // Below this many candidates forking costs more than it saves and the caller's thread does the work
+    private final int parallelThreshold;
+    private final int minShardSize;
+
+    public ParallelSearchExecutor(ForkJoinPool searchForkJoinPool,
+                                  @Value("${search.parallel.threshold:20000}") int parallelThreshold,
+                                  @Value("${search.parallel.min-shard-size:4096}") int minShardSize) {
+        this.searchForkJoinPool = searchForkJoinPool;
+        this.parallelThreshold = parallelThreshold;
+        this.minShardSize = minShardSize;
+    }
+
+    public SearchPass run(List<Product> candidates, Predicate<Product> filter, Sorter sorter, int limit, double[] priceBucketBounds) {
+        if (candidates.size() < parallelThreshold || searchForkJoinPool.getParallelism() == 1) {
+            return runShard(candidates, filter, sorter, limit, priceBucketBounds);
+        }
+        // A few shards per worker so a slow shard doesn't leave the other workers idle
+        int shardSize = Math.max(minShardSize, candidates.size() / (searchForkJoinPool.getParallelism() * 4));
+        return searchForkJoinPool.invoke(new ShardTask(candidates, 0, candidates.size(), shardSize, filter, sorter, limit, priceBucketBounds));
+    }
+
+    private static SearchPass runShard(List<Product> candidates, Predicate<Product> filter, Sorter sorter, int limit, double[] priceBucketBounds) {
+        FacetCounter facets = priceBucketBounds == null ? null : new FacetCounter(priceBucketBounds);
+        List<Product> matches = new ArrayList<>();
+        for (Product product : candidates) {
+            if (filter.test(product)) {
+                matches.add(product);
+                if (facets != null) {
+                    facets.add(product);
+                }
+            }
+        }
+        return new SearchPass(matches.size(), sorter.sortRange(matches, 0, limit), facets);
+    }
+
+    // The left shard's partial result goes first, so products that sort equal keep their candidate order
+    // exactly like in a single pass
+    private static SearchPass merge(SearchPass left, SearchPass right, Sorter sorter, int limit) {
+        List<Product> top = new ArrayList<>(left.top().size() + right.top().size());
+        top.addAll(left.top());
+        top.addAll(right.top());
+        if (left.facets() != null) {
+            left.facets().merge(right.facets());
+        }
+        return new SearchPass(left.matchCount() + right.matchCount(), sorter.sortRange(top, 0, limit), left.facets());
+    }
+
+    private static class ShardTask extends RecursiveTask<SearchPass> {
+
+        private final List<Product> candidates;
+        private final int from;
+        private final int to;
+        private final int shardSize;
+        private final Predicate<Product> filter;
+        private final Sorter sorter;
+        private final int limit;
+        private final double[] priceBucketBounds;
+
+        ShardTask(List<Product> candidates, int from, int to, int shardSize, Predicate<Product> filter, Sorter sorter, int limit, double[] priceBucketBounds) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.shardSize = shardSize;
+            this.filter = filter;
+            this.sorter = sorter;
+            this.limit = limit;
+            this.priceBucketBounds = priceBucketBounds;
+        }
+
+        @Override
+        protected SearchPass compute() {
+            if (to - from <= shardSize) {
+                return runShard(candidates.subList(from, to), filter, sorter, limit, priceBucketBounds);
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask left = new ShardTask(candidates, from, middle, shardSize, filter, sorter, limit, priceBucketBounds);
+            ShardTask right = new ShardTask(candidates, middle, to, shardSize, filter, sorter, limit, priceBucketBounds);
+            left.fork();
+            SearchPass rightPass = right.compute();
+            return merge(left.join(), rightPass, sorter, limit);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    public ProductExportService(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    // Hands every product (of the category, when given) to sink in id order and returns how many there were.
+    // Rows are read through a database cursor and detached once written, so memory use does not grow with the catalog.
+    // The transaction and its connection stay open until the last row is written, so a slow reader holds them that long.
+    @Transactional(readOnly = true)
+    public long exportProducts(Long categoryId, Consumer<Product> sink) {
+        long count = 0;
+        try (Stream<Product> products = categoryId == null
+                ? productRepository.streamAll()
+                : productRepository.streamAllByCategoryId(categoryId)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                sink.accept(product);
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
+    }
+}
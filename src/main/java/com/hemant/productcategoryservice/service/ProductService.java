@@ -3,6 +3,7 @@ package com.hemant.productcategoryservice.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hemant.productcategoryservice.configs.KafkaProducerClientConfig;
+import com.hemant.productcategoryservice.dtos.LocalCacheStatsDto;
 import com.hemant.productcategoryservice.dtos.OperationType;
 import com.hemant.productcategoryservice.dtos.ProductPaymentCreationDto;
 import com.hemant.productcategoryservice.exceptions.CategoryDoesNotExistException;
@@ -11,11 +12,20 @@ import com.hemant.productcategoryservice.models.Category;
 import com.hemant.productcategoryservice.models.Product;
 import com.hemant.productcategoryservice.repositories.CategoryRepository;
 import com.hemant.productcategoryservice.repositories.ProductRepository;
+import com.hemant.productcategoryservice.service.cachingService.EarlyRefresh;
+import com.hemant.productcategoryservice.service.cachingService.ProductAccessRecorder;
+import com.hemant.productcategoryservice.service.cachingService.ProductLocalCache;
+import com.hemant.productcategoryservice.service.indexingService.ProductIdFilter;
+import com.hemant.productcategoryservice.service.indexingService.ProductIndexSync;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -28,26 +38,49 @@ public class ProductService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final RedissonClient redissonClient;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, Product> redisTemplate;
     private static final String PRODUCTS_CACHE_KEY = "PRODUCTS";
+    private static final Duration PRODUCT_CACHE_TTL = Duration.ofDays(2);
+    private static final int CATEGORY_EVICTION_BATCH_SIZE = 1000;
     private final KafkaProducerClientConfig kafkaProducerClientConfig;
     private final ObjectMapper objectMapper;
+    private final ProductIndexSync productIndexSync;
+    private final SearchCacheGenerationService searchCacheGenerationService;
+    private final SingleFlight singleFlight;
+    private final ProductLocalCache productLocalCache;
+    private final ProductAccessRecorder productAccessRecorder;
+    private final EarlyRefresh earlyRefresh;
+    private final ProductIdFilter productIdFilter;
 
     //this is to create product in payment service as I am using strip for now.
     private final String PRODUCT_CREATED_TOPIC = "product_created_create_product_in_payment_service";
 
     public ProductService(CategoryRepository categoryRepository,
                           ProductRepository productRepository,
-                          RedisTemplate<String, Object> redisTemplate,
+                          RedisTemplate<String, Product> redisTemplate,
                           RedissonClient redissonClient,
                           KafkaProducerClientConfig kafkaProducerClientConfig,
-                          ObjectMapper objectMapper) {
+                          ObjectMapper objectMapper,
+                          ProductIndexSync productIndexSync,
+                          SearchCacheGenerationService searchCacheGenerationService,
+                          SingleFlight singleFlight,
+                          ProductLocalCache productLocalCache,
+                          ProductAccessRecorder productAccessRecorder,
+                          EarlyRefresh earlyRefresh,
+                          ProductIdFilter productIdFilter) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
         this.redisTemplate = redisTemplate;
         this.redissonClient = redissonClient;
         this.kafkaProducerClientConfig = kafkaProducerClientConfig;
         this.objectMapper = objectMapper;
+        this.productIndexSync = productIndexSync;
+        this.searchCacheGenerationService = searchCacheGenerationService;
+        this.singleFlight = singleFlight;
+        this.productLocalCache = productLocalCache;
+        this.productAccessRecorder = productAccessRecorder;
+        this.earlyRefresh = earlyRefresh;
+        this.productIdFilter = productIdFilter;
     }
 
     public Product createProduct(Product product) throws JsonProcessingException {
@@ -76,6 +109,8 @@ public class ProductService {
                 .orElseThrow(() -> new CategoryDoesNotExistException("Category with title " + finalProduct.getCategory().getTitle() + " does not exist"));
         product.setCategory(category);
         product = productRepository.save(product);
+        indexProduct(product);
+        searchCacheGenerationService.bumpGenerations(category.getId());
 
         ProductPaymentCreationDto productPaymentCreationDto = new ProductPaymentCreationDto();
         productPaymentCreationDto.setProductId(product.getId());
@@ -94,28 +129,133 @@ public class ProductService {
         if (productId == null) {
             throw new IllegalArgumentException("Product ID cannot be null");
         }
-        // Check Redis cache first
-        String fullCacheKey = PRODUCTS_CACHE_KEY + "_PRODUCT_" + productId;
-        Product product = (Product) redisTemplate.opsForValue().get(fullCacheKey);
+        // Ids that can't exist are turned away before they reach Redis or the database
+        if (!productIdFilter.mightExist(productId)) {
+            throw new ProductDoesNotExistException("Product with id " + productId + " does not exist");
+        }
+        productAccessRecorder.record(productId);
+        // Check the local cache, then Redis
+        Product product = productLocalCache.get(productId);
+        if (product != null) {
+            return product;
+        }
+        long invalidationStamp = productLocalCache.invalidationStamp();
+        String fullCacheKey = productCacheKey(productId);
+        product = earlyRefresh.get(redisTemplate, PRODUCTS_CACHE_KEY, fullCacheKey, () -> reloadProduct(productId));
         if (product != null) {
+            productLocalCache.put(productId, product, invalidationStamp);
             return product;
         }
 
-        // If not found in cache, fetch from database
-        product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductDoesNotExistException("Product with id " + productId + " does not exist"));
+        // If not found in cache, fetch from database; concurrent misses for the same product share one query
+        return singleFlight.execute(fullCacheKey, () -> {
+            Product loadedProduct = earlyRefresh.timed(PRODUCTS_CACHE_KEY, () -> productRepository.findById(productId))
+                    .orElseThrow(() -> productMissing(productId));
 
-        // Store the product in Redis cache
+            // Store the product in Redis cache
 
-        redisTemplate.opsForValue().set(fullCacheKey,product, Duration.ofDays(2));
-        return product;
+            redisTemplate.opsForValue().set(fullCacheKey, loadedProduct, earlyRefresh.storedTtl(PRODUCT_CACHE_TTL));
+            productLocalCache.put(productId, loadedProduct, invalidationStamp);
+            return loadedProduct;
+        });
+    }
+
+    // Background refresh of a product entry close to expiry; a product deleted meanwhile leaves the cache
+    private void reloadProduct(Long productId) {
+        String fullCacheKey = productCacheKey(productId);
+        productRepository.findById(productId).ifPresentOrElse(
+                product -> redisTemplate.opsForValue().set(fullCacheKey, product, earlyRefresh.storedTtl(PRODUCT_CACHE_TTL)),
+                () -> redisTemplate.delete(fullCacheKey));
+    }
+
+    // Many products at once, for hydrating cached search pages; not counted as reads of the products.
+    // Result follows the order of productIds; ids that no longer exist are skipped.
+    public List<Product> getProducts(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> productsById = lookupProducts(productIds);
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    public Map<Long, Product> getProductsById(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            if (productId != null) {
+                productAccessRecorder.record(productId);
+            }
+        }
+        return lookupProducts(productIds);
+    }
+
+    // Loads the products into the Redis and local caches without counting it as reads; used by the startup warm-up
+    public Collection<Product> warmProducts(Collection<Long> productIds) {
+        return lookupProducts(productIds).values();
+    }
+
+    // Found products keyed by id: local cache first, then one MGET against the product cache, then one
+    // findAllById for what is left, written back to Redis in a single pipeline
+    private Map<Long, Product> lookupProducts(Collection<Long> productIds) {
+        Map<Long, Product> productsById = new HashMap<>();
+        List<Long> remoteIds = new ArrayList<>();
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            if (productId == null || !productIdFilter.mightExist(productId)) {
+                continue;
+            }
+            Product product = productLocalCache.get(productId);
+            if (product != null) {
+                productsById.put(productId, product);
+            } else {
+                remoteIds.add(productId);
+            }
+        }
+        if (remoteIds.isEmpty()) {
+            return productsById;
+        }
+
+        long invalidationStamp = productLocalCache.invalidationStamp();
+        List<String> cacheKeys = remoteIds.stream().map(ProductService::productCacheKey).toList();
+        List<Product> cachedProducts = redisTemplate.opsForValue().multiGet(cacheKeys);
+
+        List<Long> missingIds = new ArrayList<>();
+        for (int i = 0; i < remoteIds.size(); i++) {
+            Product cachedProduct = cachedProducts == null ? null : cachedProducts.get(i);
+            if (cachedProduct != null) {
+                productsById.put(remoteIds.get(i), cachedProduct);
+                productLocalCache.put(remoteIds.get(i), cachedProduct, invalidationStamp);
+            } else {
+                missingIds.add(remoteIds.get(i));
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return productsById;
+        }
+
+        List<Product> loadedProducts = productRepository.findAllById(missingIds);
+        for (Product product : loadedProducts) {
+            productsById.put(product.getId(), product);
+            productLocalCache.put(product.getId(), product, invalidationStamp);
+        }
+        for (Long productId : missingIds) {
+            if (!productsById.containsKey(productId)) {
+                productIdFilter.recordMissing(productId);
+            }
+        }
+        cacheProducts(loadedProducts);
+        return productsById;
     }
 
     public Product updateProduct(Long productId, Product product) throws JsonProcessingException {
 
         // Remove the product from Redis cache if it exists
-        String fullCacheKey = PRODUCTS_CACHE_KEY + "_PRODUCT_" + productId;
-        Product cachedProduct = (Product) redisTemplate.opsForValue().get(fullCacheKey);
+        String fullCacheKey = productCacheKey(productId);
+        Product cachedProduct = redisTemplate.opsForValue().get(fullCacheKey);
         if (cachedProduct != null) {
             redisTemplate.delete(fullCacheKey);
         }
@@ -126,6 +266,7 @@ public class ProductService {
         if (productRepository.existsById(productId)) {
             Product existingProduct = productRepository.findById(productId)
                     .orElseThrow(() -> new ProductDoesNotExistException("Product with id " + productId + " does not exist"));
+            Long previousCategoryId = existingProduct.getCategory() == null ? null : existingProduct.getCategory().getId();
             if (product.getTitle() != null && !product.getTitle().isEmpty()) {
                 existingProduct.setTitle(product.getTitle());
             }
@@ -148,18 +289,22 @@ public class ProductService {
                 existingProduct.setCategory(category);
             }
 
-            product = productRepository.save(product);
+            Product updatedProduct = productRepository.save(existingProduct);
+            // Again after the save: a read between the first delete and the save may have cached the old row
+            redisTemplate.delete(fullCacheKey);
+            productLocalCache.invalidateEverywhere(productId);
+            indexProduct(updatedProduct);
+            searchCacheGenerationService.bumpGenerations(previousCategoryId, updatedProduct.getCategory().getId());
 
             ProductPaymentCreationDto productPaymentCreationDto = new ProductPaymentCreationDto();
-            productPaymentCreationDto.setProductId(product.getId());
-            productPaymentCreationDto.setPrice(product.getPrice());
-            productPaymentCreationDto.setTitle(product.getTitle());
-            productPaymentCreationDto.setDescription(product.getDescription());
+            productPaymentCreationDto.setProductId(updatedProduct.getId());
+            productPaymentCreationDto.setPrice(updatedProduct.getPrice());
+            productPaymentCreationDto.setTitle(updatedProduct.getTitle());
+            productPaymentCreationDto.setDescription(updatedProduct.getDescription());
             productPaymentCreationDto.setOperationType(OperationType.UPDATE);
 
             kafkaProducerClientConfig.sendMessage(PRODUCT_CREATED_TOPIC, objectMapper.writeValueAsString(productPaymentCreationDto));
-
-            return productRepository.save(existingProduct);
+            return updatedProduct;
         }
         throw new ProductDoesNotExistException("Product with id " + productId + " does not exist");
     }
@@ -167,8 +312,8 @@ public class ProductService {
     public boolean deleteProduct(Long productId) throws JsonProcessingException {
 
         // Remove the product from Redis cache if it exists
-        String fullCacheKey = PRODUCTS_CACHE_KEY + "_PRODUCT_" + productId;
-        Product cachedProduct = (Product) redisTemplate.opsForValue().get(fullCacheKey);
+        String fullCacheKey = productCacheKey(productId);
+        Product cachedProduct = redisTemplate.opsForValue().get(fullCacheKey);
         if (cachedProduct != null) {
             redisTemplate.delete(fullCacheKey);
         }
@@ -180,7 +325,11 @@ public class ProductService {
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new ProductDoesNotExistException("Product with id " + productId + " does not exist"));
             productRepository.deleteById(productId);
-            product = productRepository.save(product);
+            // Again after the delete: a read in between may have cached the row
+            redisTemplate.delete(fullCacheKey);
+            productLocalCache.invalidateEverywhere(productId);
+            removeFromIndexes(productId);
+            searchCacheGenerationService.bumpGenerations(product.getCategory() == null ? null : product.getCategory().getId());
 
             ProductPaymentCreationDto productPaymentCreationDto = new ProductPaymentCreationDto();
             productPaymentCreationDto.setProductId(product.getId());
@@ -196,12 +345,31 @@ public class ProductService {
         throw new ProductDoesNotExistException("Product with id " + productId + " does not exist");
     }
 
+    // Cached product bodies carry the category title, and so do the facets of cached search pages
+    public void categoryRenamed(Long categoryId) {
+        searchCacheGenerationService.bumpGenerations(categoryId);
+        long afterId = 0;
+        List<Long> productIds;
+        do {
+            productIds = productRepository.findCategoryIdsAfter(categoryId, afterId, PageRequest.of(0, CATEGORY_EVICTION_BATCH_SIZE));
+            if (!productIds.isEmpty()) {
+                redisTemplate.delete(productIds.stream().map(ProductService::productCacheKey).toList());
+                afterId = productIds.get(productIds.size() - 1);
+            }
+        } while (productIds.size() == CATEGORY_EVICTION_BATCH_SIZE);
+        // one message instead of one per product; the local caches only hold a few minutes of reads anyway
+        productLocalCache.invalidateAllEverywhere();
+    }
+
     public int getProductInventory(Long productId) {
         if (productId == null) {
             throw new IllegalArgumentException("Product ID cannot be null");
         }
+        if (!productIdFilter.mightExist(productId)) {
+            throw new ProductDoesNotExistException("Product with id " + productId + " does not exist");
+        }
         Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new ProductDoesNotExistException("Product with id " + productId + " does not exist"));
+            .orElseThrow(() -> productMissing(productId));
         if (product.getQuantity() != null) {
             return product.getQuantity();
         }
@@ -273,4 +441,57 @@ public class ProductService {
         }
         return productRepository.findAll(PageRequest.of(pageNumber, pageSize));
     }
+
+    public LocalCacheStatsDto getLocalCacheStats() {
+        return productLocalCache.stats();
+    }
+
+    // Cursor-based alternative to getAllProducts: every page costs the same, however deep
+    public Window<Product> getProductsAfter(String cursor, Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size");
+        }
+        return productRepository.scroll(
+                (root, query, cb) -> cb.conjunction(),
+                CursorCodec.decode(cursor, Set.of("id")),
+                Sort.by("id"),
+                pageSize);
+    }
+
+    // One round trip for all the SETs instead of one per product
+    private void cacheProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Product> pipeline = (RedisOperations<String, Product>) operations;
+                for (Product product : products) {
+                    pipeline.opsForValue().set(productCacheKey(product.getId()), product, earlyRefresh.storedTtl(PRODUCT_CACHE_TTL));
+                }
+                return null;
+            }
+        });
+    }
+
+    private static String productCacheKey(Long productId) {
+        return PRODUCTS_CACHE_KEY + "_PRODUCT_" + productId;
+    }
+
+    // Remembers the miss so the next lookup of the id stops at the id filter
+    private ProductDoesNotExistException productMissing(Long productId) {
+        productIdFilter.recordMissing(productId);
+        return new ProductDoesNotExistException("Product with id " + productId + " does not exist");
+    }
+
+    // Keep the in-memory search structures in step with the database, here and on the other nodes
+    private void indexProduct(Product product) {
+        productIndexSync.productChanged(product);
+    }
+
+    private void removeFromIndexes(Long productId) {
+        productIndexSync.productRemoved(productId);
+    }
 }
@@ -0,0 +1,51 @@
+package com.hemant.productcategoryservice.service;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Generation counters embedded in search cache keys. A product write bumps the counters it affects,
+// which orphans every older search entry at once; the orphans simply age out through their TTL.
+@Service
+public class SearchCacheGenerationService {
+
+    private static final String GLOBAL_GENERATION_KEY = "PRODUCTS_SEARCH_GENERATION";
+    private static final String CATEGORY_GENERATION_KEY = "PRODUCTS_SEARCH_GENERATION_CATEGORY_";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public SearchCacheGenerationService(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // Generation for searches that can return products of any category
+    public long currentGeneration() {
+        return read(GLOBAL_GENERATION_KEY);
+    }
+
+    public long currentGeneration(Long categoryId) {
+        return read(CATEGORY_GENERATION_KEY + categoryId);
+    }
+
+    // Called after a product in these categories was created, changed or removed
+    public void bumpGenerations(Long... categoryIds) {
+        List<String> keys = new ArrayList<>();
+        keys.add(GLOBAL_GENERATION_KEY);
+        for (Long categoryId : categoryIds) {
+            String key = CATEGORY_GENERATION_KEY + categoryId;
+            if (categoryId != null && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        for (String key : keys) {
+            stringRedisTemplate.opsForValue().increment(key);
+        }
+    }
+
+    private long read(String key) {
+        String generation = stringRedisTemplate.opsForValue().get(key);
+        return generation == null ? 0 : Long.parseLong(generation);
+    }
+}
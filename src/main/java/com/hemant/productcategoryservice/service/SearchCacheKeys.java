@@ -0,0 +1,63 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.service.filteringService.FilterFactory;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+// Redis keys for cached search pages. Requests that must return the same page map to the same key:
+// the query is trimmed, lowercased and whitespace-collapsed, filters go through the filter signature.
+// The canonical form is hashed so keys stay short however long the filter list is.
+public class SearchCacheKeys {
+
+    private static final String SEARCH_PREFIX = "PRODUCTS_SEARCH_G";
+    private static final String SIMPLE_SEARCH_PREFIX = "PRODUCTS_SIMPLE_SEARCH_G";
+
+    public static String canonicalQuery(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static String searchKey(long generation, String query, List<FilterDto> filters, SortingCriteria sortingCriteria,
+                                   int pageSize, int pageNumber, double[] priceBucketBounds, boolean fuzzy) {
+        String bounds = "";
+        if (priceBucketBounds != null) {
+            double[] sortedBounds = priceBucketBounds.clone();
+            Arrays.sort(sortedBounds);
+            bounds = Arrays.toString(sortedBounds);
+        }
+        String canonical = canonicalQuery(query).length() + ":" + canonicalQuery(query)
+                + "|" + FilterFactory.signature(filters)
+                + "|" + sortingCriteria.name()
+                + "|" + pageSize + "|" + pageNumber
+                + "|" + bounds
+                + "|" + fuzzy;
+        return SEARCH_PREFIX + generation + "_" + hash(canonical);
+    }
+
+    public static String simpleSearchKey(long categoryGeneration, String query, Long categoryId, Sort.Order order,
+                                         int pageSize, int pageNumber) {
+        String canonical = canonicalQuery(query).length() + ":" + canonicalQuery(query)
+                + "|" + categoryId
+                + "|" + order.getProperty() + "," + order.getDirection()
+                + "|" + pageSize + "|" + pageNumber;
+        return SIMPLE_SEARCH_PREFIX + categoryGeneration + "_" + hash(canonical);
+    }
+
+    // First 128 bits of SHA-256 as 22 base64url characters
+    private static String hash(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.dtos.SearchCacheStatsDto;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hit ratio of the search page cache on this node, and how many distinct keys all nodes asked for today.
+// Distinct keys are counted with a Redis HyperLogLog, so the estimate costs 12 KB per day whatever the traffic.
+@Service
+public class SearchCacheStats {
+
+    private static final String DISTINCT_KEYS_KEY = "PRODUCTS_SEARCH_DISTINCT_KEYS_";
+    private static final Duration DISTINCT_KEYS_TTL = Duration.ofDays(2);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Clock clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // The daily key this node has already set the TTL of
+    private volatile String expiringKey;
+
+    public SearchCacheStats(StringRedisTemplate stringRedisTemplate) {
+        this(stringRedisTemplate, Clock.systemUTC());
+    }
+
+    SearchCacheStats(StringRedisTemplate stringRedisTemplate, Clock clock) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    // Only misses need to reach the HyperLogLog: a key that hits was added when it missed first
+    public void recordMiss(String cacheKey) {
+        misses.increment();
+        String distinctKeysKey = distinctKeysKey();
+        if (distinctKeysKey.equals(expiringKey)) {
+            stringRedisTemplate.opsForHyperLogLog().add(distinctKeysKey, cacheKey);
+            return;
+        }
+        // First miss of the day on this node: PFADD and EXPIRE go out in one round trip
+        byte[] key = distinctKeysKey.getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hyperLogLogCommands().pfAdd(key, cacheKey.getBytes(StandardCharsets.UTF_8));
+            connection.keyCommands().expire(key, DISTINCT_KEYS_TTL.toSeconds());
+            return null;
+        });
+        expiringKey = distinctKeysKey;
+    }
+
+    public SearchCacheStatsDto snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        SearchCacheStatsDto stats = new SearchCacheStatsDto();
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        Long distinctKeys = stringRedisTemplate.opsForHyperLogLog().size(distinctKeysKey());
+        stats.setDistinctKeysToday(distinctKeys == null ? 0 : distinctKeys);
+        return stats;
+    }
+
+    private String distinctKeysKey() {
+        return DISTINCT_KEYS_KEY + LocalDate.now(clock.withZone(ZoneOffset.UTC));
+    }
+}
@@ -1,100 +1,308 @@
 package com.hemant.productcategoryservice.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemant.productcategoryservice.dtos.CachedSearchResult;
 import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SearchCacheStatsDto;
+import com.hemant.productcategoryservice.dtos.SearchResult;
 import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
 import com.hemant.productcategoryservice.exceptions.NoProductsFoundException;
 import com.hemant.productcategoryservice.models.Product;
 import com.hemant.productcategoryservice.repositories.ProductRepository;
+import com.hemant.productcategoryservice.service.cachingService.EarlyRefresh;
 import com.hemant.productcategoryservice.service.filteringService.FilterFactory;
+import com.hemant.productcategoryservice.service.filteringService.PriceRange;
+import com.hemant.productcategoryservice.service.filteringService.PriceRangeFilter;
+import com.hemant.productcategoryservice.service.filteringService.SearchQueryBuilder;
+import com.hemant.productcategoryservice.service.indexingService.CategoryPriceIndex;
+import com.hemant.productcategoryservice.service.indexingService.RelevanceIndex;
+import com.hemant.productcategoryservice.service.indexingService.SearchEngine;
+import com.hemant.productcategoryservice.service.indexingService.SuggestionIndex;
+import com.hemant.productcategoryservice.service.indexingService.TrigramIndex;
 import com.hemant.productcategoryservice.service.sortingService.SorterFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 public class SearchService {
 
     private final ProductRepository productRepository;
     private final RedisTemplate<String, Object> redisTemplate;
-    private static final String PRODUCTS_CACHE_KEY = "PRODUCTS";
-    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final SearchCacheGenerationService searchCacheGenerationService;
     private static final Duration CACHE_TTL = Duration.ofDays(2);
+    // names under which recompute times are tracked for early refresh
+    private static final String SEARCH_KEYSPACE = "PRODUCTS_SEARCH";
+    private static final String SIMPLE_SEARCH_KEYSPACE = "PRODUCTS_SIMPLE_SEARCH";
+    private final SearchEngine searchEngine;
+    private final CategoryPriceIndex categoryPriceIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final TrigramIndex trigramIndex;
+    private final RelevanceIndex relevanceIndex;
+    private final ParallelSearchExecutor parallelSearchExecutor;
+    private final SingleFlight singleFlight;
+    private final SearchCacheStats searchCacheStats;
+    private final EarlyRefresh earlyRefresh;
+    private final FilterFactory filterFactory;
 
 
-    public SearchService(ProductRepository productRepository, RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
+    public SearchService(ProductRepository productRepository, RedisTemplate<String, Object> redisTemplate, ProductService productService, SearchCacheGenerationService searchCacheGenerationService, SearchEngine searchEngine, CategoryPriceIndex categoryPriceIndex, SuggestionIndex suggestionIndex, TrigramIndex trigramIndex, RelevanceIndex relevanceIndex, ParallelSearchExecutor parallelSearchExecutor, SingleFlight singleFlight, SearchCacheStats searchCacheStats, EarlyRefresh earlyRefresh, FilterFactory filterFactory) {
         this.productRepository = productRepository;
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.searchCacheGenerationService = searchCacheGenerationService;
+        this.searchEngine = searchEngine;
+        this.categoryPriceIndex = categoryPriceIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.trigramIndex = trigramIndex;
+        this.relevanceIndex = relevanceIndex;
+        this.parallelSearchExecutor = parallelSearchExecutor;
+        this.singleFlight = singleFlight;
+        this.searchCacheStats = searchCacheStats;
+        this.earlyRefresh = earlyRefresh;
+        this.filterFactory = filterFactory;
     }
 
-    public Page<Product> search(String query, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber) throws JsonProcessingException {
+    public Page<Product> search(String query, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber) {
+        return searchWithFacets(query, filters, sortingCriteria, pageSize, pageNumber, null, false).getProducts();
+    }
 
-        // Fetch products from cache first
-        String filtersKey = filters.stream()
-                .map(f -> f.getKey() + "=" + String.join(",", f.getValues()))
-                .collect(Collectors.joining("&"));
-
-        String cacheKey = "SEARCH_" + query + "_" + filtersKey + "_" + sortingCriteria.name() + "_" + pageSize + "_" + pageNumber;
-        String fullCacheKey = PRODUCTS_CACHE_KEY + "_" + cacheKey;
-        String cachedJson = (String) redisTemplate.opsForValue().get(fullCacheKey);
-        if (cachedJson != null) {
-            return objectMapper.readValue(cachedJson, new TypeReference<PageImpl<Product>>() {});
+    // Same as search, but title words may be misspelled by one or two characters
+    public Page<Product> fuzzySearch(String query, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber) {
+        return searchWithFacets(query, filters, sortingCriteria, pageSize, pageNumber, null, true).getProducts();
+    }
+
+    public SearchResult searchWithFacets(String query, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber, double[] priceBucketBounds) {
+        return searchWithFacets(query, filters, sortingCriteria, pageSize, pageNumber, priceBucketBounds, false);
+    }
+
+    // Same as search, plus category and price-bucket counts over all matches when priceBucketBounds is not null
+    public SearchResult searchWithFacets(String rawQuery, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber, double[] priceBucketBounds, boolean fuzzy) {
+
+        // Fetch products from cache first. The query is canonicalized before it is run as well as in the key,
+        // so that every request mapping to a key gets the same result.
+        String query = SearchCacheKeys.canonicalQuery(rawQuery);
+        String fullCacheKey = SearchCacheKeys.searchKey(searchCacheGenerationService.currentGeneration(), query, filters, sortingCriteria, pageSize, pageNumber, priceBucketBounds, fuzzy);
+        Supplier<SearchResult> compute = () -> {
+            // Push filters, sorting and paging down to the database when every filter key can be translated,
+            // otherwise fall back to filtering the engine's matches in memory. Facets, fuzzy matching and relevance
+            // ordering need the in-memory pass.
+            Specification<Product> textSpecification = fuzzy ? null : searchEngine.toSpecification(query);
+            SearchResult searchResult;
+            if (priceBucketBounds == null && textSpecification != null && SearchQueryBuilder.canTranslate(filters) && SearchQueryBuilder.canTranslate(sortingCriteria)) {
+                searchResult = new SearchResult();
+                searchResult.setProducts(searchInDatabase(query, textSpecification, filters, sortingCriteria, pageSize, pageNumber));
+            } else {
+                searchResult = searchInMemory(query, filters, sortingCriteria, pageSize, pageNumber, priceBucketBounds, fuzzy);
+            }
+            if (searchResult.getProducts().isEmpty()) {
+                return searchResult;
+            }
+
+            // Store the result in Redis cache
+            writeCachedResult(fullCacheKey, searchResult);
+
+            return searchResult;
+        };
+        SearchResult cachedResult = readCachedResult(SEARCH_KEYSPACE, fullCacheKey, pageSize, pageNumber, compute::get);
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
-        List<Product> products = productRepository.findByTitleContaining(query);
-        if(products.isEmpty()) {
+        // Concurrent misses for the same page are computed once
+        return singleFlight.execute(fullCacheKey, () -> earlyRefresh.timed(SEARCH_KEYSPACE, compute));
+    }
+
+    private Page<Product> searchInDatabase(String query, Specification<Product> textSpecification, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber) {
+        Page<Product> productPage = productRepository.findAll(
+                textSpecification.and(SearchQueryBuilder.fromFilters(filters)),
+                PageRequest.of(pageNumber - 1, pageSize, SearchQueryBuilder.toSort(sortingCriteria)));
+        if (productPage.getTotalElements() == 0 && (filters.isEmpty() || !productRepository.exists(textSpecification))) {
             throw new NoProductsFoundException("No products found for the query: " + query);
         }
+        return productPage;
+    }
 
-        for(FilterDto filter : filters) {
-            products = FilterFactory.getFilterFromKey(filter.getKey()).apply(products, filter.getValues());
+    private SearchResult searchInMemory(String query, List<FilterDto> filters, SortingCriteria sortingCriteria, int pageSize, int pageNumber, double[] priceBucketBounds, boolean fuzzy) {
+        List<Product> products = fuzzy ? findFuzzyCandidates(query, filters) : findCandidates(query, filters);
+        if(products.isEmpty()) {
+            throw new NoProductsFoundException("No products found for the query: " + query);
         }
-        products = SorterFactory.getSortedByValue(sortingCriteria).sort(products);
+
+        // One pass: filter, count facets for the products that pass, and order only the products
+        // up to the end of the requested page
         int start = pageSize * (pageNumber - 1);
-        int end = Math.min(start + pageSize, products.size());
-        if (start >= products.size()) {
-            return Page.empty();
+        ParallelSearchExecutor.SearchPass searchPass = parallelSearchExecutor.run(
+                products,
+                filterFactory.compile(filters),
+                SorterFactory.getSortedByValue(sortingCriteria, query, relevanceIndex),
+                start + pageSize,
+                priceBucketBounds);
+
+        SearchResult searchResult = new SearchResult();
+        searchResult.setFacets(searchPass.facets() == null ? null : searchPass.facets().toDto());
+        if (start >= searchPass.matchCount()) {
+            searchResult.setProducts(Page.empty());
+            return searchResult;
         }
-        List<Product> productsOnPage = products.subList(start, end);
-        Page<Product> productPage = new PageImpl<>(productsOnPage, PageRequest.of(pageNumber - 1, pageSize), products.size());
+        List<Product> productsOnPage = searchPass.top().subList(start, searchPass.top().size());
+        searchResult.setProducts(new PageImpl<>(new ArrayList<>(productsOnPage), PageRequest.of(pageNumber - 1, pageSize), searchPass.matchCount()));
+        return searchResult;
+    }
 
-        // Store the result in Redis cache
-        String json = objectMapper.writeValueAsString(productPage);
-        redisTemplate.opsForValue().set(fullCacheKey, json, CACHE_TTL);
+    private List<Product> findCandidates(String query, List<FilterDto> filters) {
+        // Without a text query the candidates would be the whole catalog; a price range
+        // narrows that down with binary searches on the price index instead
+        if (query == null || query.isBlank()) {
+            long[] ids = null;
+            for (FilterDto filter : filters) {
+                if ("priceRange".equals(filter.getKey())) {
+                    long[] rangeIds = idsInRanges(PriceRangeFilter.parseRanges(filter.getValues()));
+                    if (ids == null || rangeIds.length < ids.length) {
+                        ids = rangeIds;
+                    }
+                }
+            }
+            if (ids != null) {
+                return searchEngine.findAllById(ids);
+            }
+        }
+        return searchEngine.search(query);
+    }
 
-        return productPage;
+    // Exact matches plus products whose title is within a few typos of the query
+    private List<Product> findFuzzyCandidates(String query, List<FilterDto> filters) {
+        List<Product> products = new ArrayList<>(findCandidates(query, filters));
+        if (query == null || query.isBlank()) {
+            return products;
+        }
+        Set<Long> seen = new HashSet<>();
+        for (Product product : products) {
+            seen.add(product.getId());
+        }
+        for (Product product : searchEngine.findAllById(trigramIndex.search(query))) {
+            if (seen.add(product.getId())) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private long[] idsInRanges(List<PriceRange> ranges) {
+        if (ranges.size() == 1) {
+            return categoryPriceIndex.priceRange(ranges.get(0));
+        }
+        return ranges.stream()
+                .flatMapToLong(range -> Arrays.stream(categoryPriceIndex.priceRange(range)))
+                .distinct()
+                .toArray();
     }
 
-    public Page<Product> simpleSearch(String query, Long categoryId, int pageSize, int pageNumber, String sortingAttribute) throws JsonProcessingException {
+    public Page<Product> simpleSearch(String rawQuery, Long categoryId, int pageSize, int pageNumber, String sortingAttribute) {
+        String query = SearchCacheKeys.canonicalQuery(rawQuery);
+        Sort sort = SearchQueryBuilder.toCategorySort(sortingAttribute);
+        Sort.Order order = sort.iterator().next();
+
+        // Plain category browsing by price is answered straight from the in-memory price index
+        if (query.isEmpty() && order.getProperty().equals("price")) {
+            return browseCategoryByPrice(categoryId, pageSize, pageNumber, sort);
+        }
 
         // Fetch products from cache first
 
-        String cacheKey = "SIMPLE_SEARCH_" + query + "_" + categoryId + "_" + sortingAttribute + "_" + pageSize + "_" + pageNumber;
-        String fullCacheKey = PRODUCTS_CACHE_KEY + "_" + cacheKey;
-        String cachedJson = (String) redisTemplate.opsForValue().get(fullCacheKey);
-        if (cachedJson != null) {
-            return objectMapper.readValue(cachedJson, new TypeReference<PageImpl<Product>>() {
-            });
+        String fullCacheKey = SearchCacheKeys.simpleSearchKey(searchCacheGenerationService.currentGeneration(categoryId), query, categoryId, order, pageSize, pageNumber);
+        Supplier<Page<Product>> compute = () -> {
+            Page<Product> productPage =  productRepository
+                .findAllByTitleContainingAndCategory_Id(query,
+                categoryId,
+                PageRequest.of(pageNumber - 1, pageSize, sort));
+
+            SearchResult searchResult = new SearchResult();
+            searchResult.setProducts(productPage);
+            writeCachedResult(fullCacheKey, searchResult);
+
+            return productPage;
+        };
+        SearchResult cachedResult = readCachedResult(SIMPLE_SEARCH_KEYSPACE, fullCacheKey, pageSize, pageNumber, compute::get);
+        if (cachedResult != null) {
+            return cachedResult.getProducts();
         }
 
-        Page<Product> productPage =  productRepository
-            .findAllByTitleContainingAndCategory_Id(query,
-            categoryId,
-            PageRequest.of(pageNumber - 1, pageSize, Sort.by(sortingAttribute)));
+        return singleFlight.execute(fullCacheKey, () -> earlyRefresh.timed(SIMPLE_SEARCH_KEYSPACE, compute));
+    }
 
-        String json = objectMapper.writeValueAsString(productPage);
-        redisTemplate.opsForValue().set(fullCacheKey, json, CACHE_TTL);
+    // Cursor-based variant of simpleSearch that seeks on (sortingAttribute, id) instead of using OFFSET
+    public Window<Product> simpleSearchAfter(String query, Long categoryId, int pageSize, String cursor, String sortingAttribute) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size");
+        }
+        // Same whitelist and (field, id) tie-breaker as simpleSearch
+        Sort sort = SearchQueryBuilder.toCategorySort(sortingAttribute);
+        Set<String> cursorKeys = new HashSet<>();
+        sort.forEach(order -> cursorKeys.add(order.getProperty()));
 
-        return productPage;
+        Specification<Product> specification = (root, criteriaQuery, cb) -> cb.and(
+                SearchQueryBuilder.contains(cb, root.get("title"), query),
+                cb.equal(root.get("category").get("id"), categoryId));
+        return productRepository.scroll(specification, CursorCodec.decode(cursor, cursorKeys), sort, pageSize);
+    }
+
+    // Most popular product and category titles starting with prefix, served from memory
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Invalid suggestion limit");
+        }
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    public SearchCacheStatsDto getCacheStats() {
+        return searchCacheStats.snapshot();
+    }
+
+    private Page<Product> browseCategoryByPrice(Long categoryId, int pageSize, int pageNumber, Sort sort) {
+        PageRequest pageRequest = PageRequest.of(pageNumber - 1, pageSize, sort);
+        int start = (int) pageRequest.getOffset();
+        boolean descending = sort.iterator().next().isDescending();
+        long[] ids = categoryPriceIndex.page(categoryId, descending, start, start + pageSize);
+        return new PageImpl<>(searchEngine.findAllById(ids), pageRequest, categoryPriceIndex.size(categoryId));
+    }
+
+    // Search pages are cached as id lists and hydrated from the per-product cache in one MGET,
+    // so product bodies are stored once and always reflect the latest write. refresh recomputes
+    // and rewrites the page when the entry is close to expiry.
+    private SearchResult readCachedResult(String keyspace, String fullCacheKey, int pageSize, int pageNumber, Runnable refresh) {
+        Object cached = earlyRefresh.get(redisTemplate, keyspace, fullCacheKey, refresh);
+        if (!(cached instanceof CachedSearchResult cachedResult)) {
+            searchCacheStats.recordMiss(fullCacheKey);
+            return null;
+        }
+        searchCacheStats.recordHit();
+        List<Product> products = productService.getProducts(cachedResult.getProductIds());
+        SearchResult searchResult = new SearchResult();
+        searchResult.setProducts(new PageImpl<>(products, PageRequest.of(pageNumber - 1, pageSize), cachedResult.getTotalElements()));
+        searchResult.setFacets(cachedResult.getFacets());
+        return searchResult;
+    }
+
+    private void writeCachedResult(String fullCacheKey, SearchResult searchResult) {
+        CachedSearchResult cachedResult = new CachedSearchResult();
+        cachedResult.setProductIds(searchResult.getProducts().getContent().stream().map(Product::getId).toList());
+        cachedResult.setTotalElements(searchResult.getProducts().getTotalElements());
+        cachedResult.setFacets(searchResult.getFacets());
+        redisTemplate.opsForValue().set(fullCacheKey, cachedResult, earlyRefresh.storedTtl(CACHE_TTL));
     }
 }
@@ -0,0 +1,120 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Keeps hot Redis entries from expiring on the request path. Entries are stored for their TTL plus a stale
+// grace period; a read inside the grace period gets the stale value and schedules one background reload.
+// Before the TTL runs out, reads also reload early with the XFetch probability: the closer the expiry and
+// the longer the value takes to recompute, the likelier, so usually one reader refreshes ahead of time.
+@Component
+public class EarlyRefresh {
+
+    private static final Logger logger = LoggerFactory.getLogger(EarlyRefresh.class);
+    // Assumed recompute time of a keyspace until one has been measured
+    private static final double DEFAULT_RECOMPUTE_MILLIS = 50;
+    // Weight of the latest measurement in the running average of recompute times
+    private static final double SMOOTHING = 0.2;
+
+    private final ThreadPoolExecutor cacheRefreshExecutor;
+    private final double beta;
+    private final Duration staleGrace;
+    // keys with a reload queued or running on this node
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, Double> recomputeMillis = new ConcurrentHashMap<>();
+
+    public EarlyRefresh(ThreadPoolExecutor cacheRefreshExecutor,
+                        @Value("${cache.refresh.beta:1.0}") double beta,
+                        @Value("${cache.refresh.stale-grace:PT10M}") Duration staleGrace) {
+        this.cacheRefreshExecutor = cacheRefreshExecutor;
+        this.beta = beta;
+        this.staleGrace = staleGrace;
+    }
+
+    // Expiry to store an entry with, so it can still be served while being refreshed
+    public Duration storedTtl(Duration ttl) {
+        return ttl.plus(staleGrace);
+    }
+
+    // The cached value, or null on a miss. Value and remaining TTL come back in one pipelined round trip;
+    // refresh must reload the value and write it back with storedTtl.
+    @SuppressWarnings("unchecked")
+    public <V> V get(RedisTemplate<String, V> redisTemplate, String keyspace, String key, Runnable refresh) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, T> Object execute(RedisOperations<K, T> operations) {
+                RedisOperations<String, V> pipeline = (RedisOperations<String, V>) operations;
+                pipeline.opsForValue().get(key);
+                pipeline.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+        V value = (V) results.get(0);
+        Long expiresInMillis = (Long) results.get(1);
+        if (value != null && expiresInMillis != null && expiresInMillis >= 0
+                && shouldRefresh(keyspace, expiresInMillis - staleGrace.toMillis())) {
+            refreshInBackground(keyspace, key, refresh);
+        }
+        return value;
+    }
+
+    // Runs a request-path load, recording how long the keyspace takes to recompute
+    public <T> T timed(String keyspace, Supplier<T> loader) {
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } finally {
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            recomputeMillis.merge(keyspace, millis, (average, latest) -> average + SMOOTHING * (latest - average));
+        }
+    }
+
+    // XFetch: refresh when delta * beta * -ln(random) reaches the time left, and always once it is stale
+    private boolean shouldRefresh(String keyspace, long remainingMillis) {
+        if (remainingMillis <= 0) {
+            return true;
+        }
+        double delta = recomputeMillis.getOrDefault(keyspace, DEFAULT_RECOMPUTE_MILLIS);
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        return -delta * beta * Math.log(random) >= remainingMillis;
+    }
+
+    private void refreshInBackground(String keyspace, String key, Runnable refresh) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    timed(keyspace, () -> {
+                        refresh.run();
+                        return null;
+                    });
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh of {} failed", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // queue full: the entry is served as is and refreshed by a later read
+            refreshing.remove(key);
+        }
+    }
+}
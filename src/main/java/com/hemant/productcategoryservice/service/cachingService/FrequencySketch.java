@@ -0,0 +1,75 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+// Approximate access counts for TinyLFU admission: a count-min sketch of 4-bit counters (capped at 15), sixteen
+// to a long, with sixteen counters per expected entry so one-off keys don't saturate them. Every counter is
+// halved once 10 increments per expected entry have been recorded, so old popularity fades.
+// Not thread-safe; TinyLfuCache only touches it under its lock.
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x97cb3127, 0xb24daf1b, 0x6f3a2c55, 0x1d8e4e27};
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_TABLE_LENGTH = 1 << 26;
+    // Clears the bit each counter gets from its neighbour when the table is shifted right by one
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int counterMask;
+    private final int sampleSize;
+    private int additions;
+
+    public FrequencySketch(int expectedEntries) {
+        int entries = Math.max(expectedEntries, 64);
+        int length = Math.min(MAX_TABLE_LENGTH, Integer.highestOneBit(entries - 1) << 1);
+        this.table = new long[length];
+        this.counterMask = length * 16 - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * entries);
+    }
+
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, count(index(hash, i)));
+        }
+        return frequency;
+    }
+
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (count(index) < MAX_COUNT) {
+                table[index >>> 4] += 1L << ((index & 15) << 2);
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private int count(int index) {
+        return (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT);
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash + SEEDS[row]) * SEEDS[row];
+        return (h ^ (h >>> 16)) & counterMask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
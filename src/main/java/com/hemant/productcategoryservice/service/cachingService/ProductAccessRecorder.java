@@ -0,0 +1,98 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Which products get read the most, shared by all nodes in a Redis sorted set so a fresh node knows what
+// to warm up. Reads are only counted in memory; the counts go to Redis every flush interval in one pipeline
+// of ZINCRBYs, so the request path never waits on Redis for this.
+@Component
+public class ProductAccessRecorder {
+
+    private static final String HOT_PRODUCTS_KEY = "PRODUCTS_HOT";
+    private static final byte[] HOT_PRODUCTS_KEY_BYTES = HOT_PRODUCTS_KEY.getBytes(StandardCharsets.UTF_8);
+    // The set is trimmed back to the hottest MAX_TRACKED ids on every flush
+    private static final int MAX_TRACKED = 20000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int maxPending;
+    // Swapped out whole on each flush; an increment racing with the swap may be lost, which the ranking can afford
+    private volatile Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ProductAccessRecorder(StringRedisTemplate stringRedisTemplate,
+                                 @Value("${cache.hot-products.max-pending:50000}") int maxPending) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxPending = maxPending;
+    }
+
+    public void record(Long productId) {
+        Map<Long, LongAdder> counts = pending;
+        LongAdder count = counts.get(productId);
+        if (count == null) {
+            // ids first read after the map filled up wait for the next flush
+            if (counts.size() >= maxPending) {
+                return;
+            }
+            count = counts.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.hot-products.flush-interval:PT10S}")
+    @PreDestroy
+    public void flush() {
+        Map<Long, LongAdder> counts = pending;
+        if (counts.isEmpty()) {
+            return;
+        }
+        pending = new ConcurrentHashMap<>();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<Long, LongAdder> count : counts.entrySet()) {
+                connection.zSetCommands().zIncrBy(HOT_PRODUCTS_KEY_BYTES, count.getValue().sum(),
+                        String.valueOf(count.getKey()).getBytes(StandardCharsets.UTF_8));
+            }
+            connection.zSetCommands().zRemRange(HOT_PRODUCTS_KEY_BYTES, 0, -MAX_TRACKED - 1);
+            return null;
+        });
+    }
+
+    // Up to limit product ids, most read first
+    public List<Long> hottest(int limit) {
+        Set<String> productIds = stringRedisTemplate.opsForZSet().reverseRange(HOT_PRODUCTS_KEY, 0, limit - 1);
+        List<Long> hottest = new ArrayList<>();
+        if (productIds != null) {
+            for (String productId : productIds) {
+                hottest.add(Long.valueOf(productId));
+            }
+        }
+        return hottest;
+    }
+
+    // Read counts of every tracked product, as of the last flush of each node
+    public Map<Long, Long> readCounts() {
+        Set<ZSetOperations.TypedTuple<String>> counts = stringRedisTemplate.opsForZSet().rangeWithScores(HOT_PRODUCTS_KEY, 0, -1);
+        Map<Long, Long> readCounts = new HashMap<>();
+        if (counts != null) {
+            for (ZSetOperations.TypedTuple<String> count : counts) {
+                if (count.getValue() != null && count.getScore() != null) {
+                    readCounts.put(Long.valueOf(count.getValue()), count.getScore().longValue());
+                }
+            }
+        }
+        return readCounts;
+    }
+}
@@ -0,0 +1,247 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+// Compact binary form of a cached Product and its Category: a 3-byte header (magic, schema version, flags)
+// followed by a presence bitmask and the fields in a fixed order. Bodies of at least compressionThreshold
+// bytes are LZ4-compressed when that saves space.
+// Values this codec can't read (another schema version, or JSON written before the switch) decode to null,
+// which callers already treat as a cache miss.
+public class ProductCacheCodec implements RedisSerializer<Product> {
+
+    private static final byte MAGIC = (byte) 0xC7;
+    private static final byte SCHEMA_VERSION = 1;
+    private static final int FLAG_LZ4 = 1;
+    private static final int HEADER_BYTES = 3;
+
+    // presence bits, one per nullable field
+    private static final int ID = 1;
+    private static final int CREATED_AT = 1 << 1;
+    private static final int LAST_MODIFIED_AT = 1 << 2;
+    private static final int TITLE = 1 << 3;
+    private static final int PRICE = 1 << 4;
+    private static final int DESCRIPTION = 1 << 5;
+    private static final int IMG_URL = 1 << 6;
+    private static final int QUANTITY = 1 << 7;
+    private static final int CATEGORY = 1 << 8;
+    private static final int CATEGORY_ID = 1 << 9;
+    private static final int CATEGORY_CREATED_AT = 1 << 10;
+    private static final int CATEGORY_LAST_MODIFIED_AT = 1 << 11;
+    private static final int CATEGORY_TITLE = 1 << 12;
+
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    // compressionThreshold <= 0 turns compression off
+    public ProductCacheCodec(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Product product) throws SerializationException {
+        if (product == null) {
+            return new byte[0];
+        }
+        Writer body = new Writer(HEADER_BYTES + 128);
+        body.position = HEADER_BYTES;
+        writeBody(product, body);
+        int bodyLength = body.position - HEADER_BYTES;
+
+        if (compressionThreshold > 0 && bodyLength >= compressionThreshold) {
+            byte[] compressed = compressed(body.bytes, bodyLength);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        body.bytes[0] = MAGIC;
+        body.bytes[1] = SCHEMA_VERSION;
+        body.bytes[2] = 0;
+        return Arrays.copyOf(body.bytes, body.position);
+    }
+
+    @Override
+    public Product deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_BYTES || bytes[0] != MAGIC || bytes[1] != SCHEMA_VERSION) {
+            return null;
+        }
+        try {
+            ByteBuffer body;
+            if ((bytes[2] & FLAG_LZ4) != 0) {
+                ByteBuffer header = ByteBuffer.wrap(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+                int bodyLength = readVarInt(header);
+                byte[] decompressed = new byte[bodyLength];
+                decompressor.decompress(bytes, header.position(), decompressed, 0, bodyLength);
+                body = ByteBuffer.wrap(decompressed);
+            } else {
+                body = ByteBuffer.wrap(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+            }
+            return readBody(body);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Corrupt product cache entry", e);
+        }
+    }
+
+    // Header, then the uncompressed body length, then the LZ4 block; null if it would not be smaller
+    private byte[] compressed(byte[] buffer, int bodyLength) {
+        byte[] out = new byte[HEADER_BYTES + 5 + compressor.maxCompressedLength(bodyLength)];
+        out[0] = MAGIC;
+        out[1] = SCHEMA_VERSION;
+        out[2] = FLAG_LZ4;
+        int position = writeVarInt(out, HEADER_BYTES, bodyLength);
+        int compressedLength = compressor.compress(buffer, HEADER_BYTES, bodyLength, out, position, out.length - position);
+        if (position + compressedLength >= HEADER_BYTES + bodyLength) {
+            return null;
+        }
+        return Arrays.copyOf(out, position + compressedLength);
+    }
+
+    private static void writeBody(Product product, Writer out) {
+        Category category = product.getCategory();
+        int present = 0;
+        present |= product.getId() != null ? ID : 0;
+        present |= product.getCreatedAt() != null ? CREATED_AT : 0;
+        present |= product.getLastModifiedAt() != null ? LAST_MODIFIED_AT : 0;
+        present |= product.getTitle() != null ? TITLE : 0;
+        present |= product.getPrice() != null ? PRICE : 0;
+        present |= product.getDescription() != null ? DESCRIPTION : 0;
+        present |= product.getImgUrl() != null ? IMG_URL : 0;
+        present |= product.getQuantity() != null ? QUANTITY : 0;
+        if (category != null) {
+            present |= CATEGORY;
+            present |= category.getId() != null ? CATEGORY_ID : 0;
+            present |= category.getCreatedAt() != null ? CATEGORY_CREATED_AT : 0;
+            present |= category.getLastModifiedAt() != null ? CATEGORY_LAST_MODIFIED_AT : 0;
+            present |= category.getTitle() != null ? CATEGORY_TITLE : 0;
+        }
+        out.varLong(present);
+
+        if ((present & ID) != 0) out.varLong(product.getId());
+        if ((present & CREATED_AT) != 0) out.varLong(product.getCreatedAt().getTime());
+        if ((present & LAST_MODIFIED_AT) != 0) out.varLong(product.getLastModifiedAt().getTime());
+        if ((present & TITLE) != 0) out.string(product.getTitle());
+        if ((present & PRICE) != 0) out.fixedLong(Double.doubleToRawLongBits(product.getPrice()));
+        if ((present & DESCRIPTION) != 0) out.string(product.getDescription());
+        if ((present & IMG_URL) != 0) out.string(product.getImgUrl());
+        if ((present & QUANTITY) != 0) out.varLong(product.getQuantity());
+        if ((present & CATEGORY_ID) != 0) out.varLong(category.getId());
+        if ((present & CATEGORY_CREATED_AT) != 0) out.varLong(category.getCreatedAt().getTime());
+        if ((present & CATEGORY_LAST_MODIFIED_AT) != 0) out.varLong(category.getLastModifiedAt().getTime());
+        if ((present & CATEGORY_TITLE) != 0) out.string(category.getTitle());
+    }
+
+    private static Product readBody(ByteBuffer in) {
+        int present = (int) readVarLong(in);
+        Product product = new Product();
+        if ((present & ID) != 0) product.setId(readVarLong(in));
+        if ((present & CREATED_AT) != 0) product.setCreatedAt(new Date(readVarLong(in)));
+        if ((present & LAST_MODIFIED_AT) != 0) product.setLastModifiedAt(new Date(readVarLong(in)));
+        if ((present & TITLE) != 0) product.setTitle(readString(in));
+        if ((present & PRICE) != 0) product.setPrice(Double.longBitsToDouble(in.getLong()));
+        if ((present & DESCRIPTION) != 0) product.setDescription(readString(in));
+        if ((present & IMG_URL) != 0) product.setImgUrl(readString(in));
+        if ((present & QUANTITY) != 0) product.setQuantity((int) readVarLong(in));
+        if ((present & CATEGORY) != 0) {
+            Category category = new Category();
+            if ((present & CATEGORY_ID) != 0) category.setId(readVarLong(in));
+            if ((present & CATEGORY_CREATED_AT) != 0) category.setCreatedAt(new Date(readVarLong(in)));
+            if ((present & CATEGORY_LAST_MODIFIED_AT) != 0) category.setLastModifiedAt(new Date(readVarLong(in)));
+            if ((present & CATEGORY_TITLE) != 0) category.setTitle(readString(in));
+            product.setCategory(category);
+        }
+        return product;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // Zig-zag varints, so small negative numbers stay short too
+    private static long readVarLong(ByteBuffer in) {
+        long raw = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            raw |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int writeVarInt(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static class Writer {
+        byte[] bytes;
+        int position;
+
+        Writer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void varLong(long value) {
+            long raw = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((raw & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((raw & 0x7F) | 0x80);
+                raw >>>= 7;
+            }
+            bytes[position++] = (byte) raw;
+        }
+
+        void fixedLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            ensure(5 + utf8.length);
+            position = writeVarInt(bytes, position, utf8.length);
+            System.arraycopy(utf8, 0, bytes, position, utf8.length);
+            position += utf8.length;
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + extra));
+            }
+        }
+    }
+}
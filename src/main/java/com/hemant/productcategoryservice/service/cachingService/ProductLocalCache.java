@@ -0,0 +1,115 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import com.hemant.productcategoryservice.dtos.LocalCacheStatsDto;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process L1 in front of the Redis product cache. Writes publish the product id on a Redis channel and
+// every node drops its copy; entries also expire on their own in case a message is lost.
+@Component
+public class ProductLocalCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "PRODUCTS_INVALIDATIONS";
+    // Published instead of a product id to drop every product, e.g. after a category rename
+    private static final String ALL_PRODUCTS = "*";
+    // Rough size of a product with short texts, only used to size the frequency sketch
+    private static final int TYPICAL_PRODUCT_BYTES = 512;
+
+    private final TinyLfuCache<Long, Product> cache;
+    private final StringRedisTemplate stringRedisTemplate;
+    // Bumped on every invalidation; a value read from Redis before an invalidation may be stale
+    // and is not cached if the counter moved in between
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductLocalCache(StringRedisTemplate stringRedisTemplate,
+                             @Value("${cache.local.max-bytes:33554432}") long maxBytes,
+                             @Value("${cache.local.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = new TinyLfuCache<>(maxBytes, expireAfterWrite, ProductLocalCache::estimateBytes,
+                (int) Math.min(Integer.MAX_VALUE, maxBytes / TYPICAL_PRODUCT_BYTES));
+    }
+
+    public Product get(Long productId) {
+        return cache.get(productId);
+    }
+
+    // Read before going to Redis or the database and hand it back to put
+    public long invalidationStamp() {
+        return invalidations.get();
+    }
+
+    public void put(Long productId, Product product, long invalidationStamp) {
+        if (invalidations.get() == invalidationStamp) {
+            cache.put(productId, product);
+        }
+    }
+
+    // Drops the product here and on every other node
+    public void invalidateEverywhere(Long productId) {
+        invalidate(productId);
+        stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(productId));
+    }
+
+    // Drops every product here and on every other node
+    public void invalidateAllEverywhere() {
+        invalidateAll();
+        stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, ALL_PRODUCTS);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (ALL_PRODUCTS.equals(body)) {
+            invalidateAll();
+        } else {
+            invalidate(Long.valueOf(body));
+        }
+    }
+
+    public LocalCacheStatsDto stats() {
+        long hits = cache.hits();
+        long misses = cache.misses();
+        LocalCacheStatsDto stats = new LocalCacheStatsDto();
+        stats.setHits(hits);
+        stats.setMisses(misses);
+        stats.setHitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+        stats.setEvictions(cache.evictions());
+        stats.setEntries(cache.size());
+        stats.setEstimatedBytes(cache.weightedSize());
+        stats.setMaxBytes(cache.maxWeight());
+        return stats;
+    }
+
+    private void invalidate(Long productId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(productId);
+    }
+
+    private void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Object headers and boxed fields plus two bytes per character of text
+    public static long estimateBytes(Product product) {
+        long bytes = 160 + textBytes(product.getTitle()) + textBytes(product.getDescription()) + textBytes(product.getImgUrl());
+        Category category = product.getCategory();
+        if (category != null) {
+            bytes += 80 + textBytes(category.getTitle());
+        }
+        return bytes;
+    }
+
+    private static long textBytes(String text) {
+        return text == null ? 0 : 40 + 2L * text.length();
+    }
+}
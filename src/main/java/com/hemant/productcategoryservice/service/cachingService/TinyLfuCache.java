@@ -0,0 +1,336 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+// Weight-bounded W-TinyLFU cache. New entries land in a small LRU window; what falls out of the window
+// only gets into the main segmented LRU (probation + protected) if it has been asked for more often than
+// the entry it would push out, so a burst of one-off keys cannot flush the hot set.
+// Reads don't take the lock: a hit is served from a concurrent map and the access is recorded in a striped,
+// bounded buffer. The buffers are replayed into the sketch and LRU order by whichever thread gets the lock
+// next; when a buffer is full, reads are dropped from it, which only makes the LRU order a little less exact.
+public class TinyLfuCache<K, V> {
+
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.80;
+    private static final int READ_BUFFER_SIZE = 64;
+    private static final int DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+    private static final int READ_BUFFERS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private static class Node<V> {
+        final V value;
+        final long weight;
+        final long writtenAt;
+        // guarded by evictionLock; null once the node has left the cache
+        Segment segment;
+
+        Node(V value, long weight, long writtenAt) {
+            this.value = value;
+            this.weight = weight;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    // node is null for a miss, which still counts towards the key's frequency
+    private record Read<K, V>(K key, Node<V> node) {}
+
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+    private final long expireAfterWriteNanos;
+    private final ToLongFunction<V> weigher;
+    private final LongSupplier ticker;
+
+    // Changed only under evictionLock, read without it
+    private final Map<K, Node<V>> nodes = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Read<K, V>>[] readBuffers;
+
+    // Everything below is guarded by evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    // Insertion-ordered: the first entry is the least recently used
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private volatile long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLfuCache(long maxWeight, Duration expireAfterWrite, ToLongFunction<V> weigher, int expectedEntries) {
+        this(maxWeight, expireAfterWrite, weigher, expectedEntries, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TinyLfuCache(long maxWeight, Duration expireAfterWrite, ToLongFunction<V> weigher, int expectedEntries, LongSupplier ticker) {
+        this.maxWeight = maxWeight;
+        this.maxWindowWeight = Math.max(1, (long) (maxWeight * WINDOW_SHARE));
+        this.maxProtectedWeight = (long) ((maxWeight - maxWindowWeight) * PROTECTED_SHARE);
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.weigher = weigher;
+        this.ticker = ticker;
+        this.sketch = new FrequencySketch(expectedEntries);
+        this.readBuffers = new ArrayBlockingQueue[READ_BUFFERS];
+        for (int i = 0; i < READ_BUFFERS; i++) {
+            readBuffers[i] = new ArrayBlockingQueue<>(READ_BUFFER_SIZE);
+        }
+    }
+
+    public V get(K key) {
+        Node<V> node = nodes.get(key);
+        if (node == null || ticker.getAsLong() - node.writtenAt > expireAfterWriteNanos) {
+            // an expired node is unlinked when the read is replayed
+            misses.increment();
+            recordRead(key, node);
+            return null;
+        }
+        hits.increment();
+        recordRead(key, node);
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            Node<V> existing = nodes.get(key);
+            if (existing != null) {
+                unlink(key, existing);
+            }
+            if (weight > maxWeight - maxWindowWeight) {
+                // would evict most of the cache on its own
+                return;
+            }
+            Node<V> node = new Node<>(value, weight, ticker.getAsLong());
+            node.segment = Segment.WINDOW;
+            nodes.put(key, node);
+            window.put(key, node);
+            windowWeight += weight;
+            totalWeight += weight;
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        evictionLock.lock();
+        try {
+            Node<V> node = nodes.get(key);
+            if (node != null) {
+                unlink(key, node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (Node<V> node : nodes.values()) {
+                node.segment = null;
+            }
+            nodes.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowWeight = 0;
+            protectedWeight = 0;
+            totalWeight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Replays the buffered reads now instead of on the next write
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long weightedSize() {
+        return totalWeight;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    // Whether the key is cached, without counting as a read
+    boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    long protectedWeight() {
+        evictionLock.lock();
+        try {
+            return protectedWeight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void recordRead(K key, Node<V> node) {
+        ArrayBlockingQueue<Read<K, V>> buffer = readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFERS - 1)];
+        boolean recorded = buffer.offer(new Read<>(key, node));
+        if ((!recorded || buffer.size() >= DRAIN_THRESHOLD) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ArrayBlockingQueue<Read<K, V>> buffer : readBuffers) {
+            Read<K, V> read;
+            while ((read = buffer.poll()) != null) {
+                sketch.increment(read.key());
+                Node<V> node = read.node();
+                // skip reads of nodes replaced or removed since
+                if (node == null || node.segment == null) {
+                    continue;
+                }
+                if (ticker.getAsLong() - node.writtenAt > expireAfterWriteNanos) {
+                    unlink(read.key(), node);
+                } else {
+                    onAccess(read.key(), node);
+                }
+            }
+        }
+    }
+
+    private void onAccess(K key, Node<V> node) {
+        switch (node.segment) {
+            case WINDOW -> moveToEnd(window, key, node);
+            case PROBATION -> {
+                // a second access proves the entry is worth protecting
+                probation.remove(key);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(key, node);
+                protectedWeight += node.weight;
+                demoteProtectedOverflow();
+            }
+            case PROTECTED -> moveToEnd(protectedSegment, key, node);
+        }
+    }
+
+    private void demoteProtectedOverflow() {
+        Iterator<Map.Entry<K, Node<V>>> iterator = protectedSegment.entrySet().iterator();
+        while (protectedWeight > maxProtectedWeight && iterator.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = iterator.next();
+            iterator.remove();
+            protectedWeight -= eldest.getValue().weight;
+            eldest.getValue().segment = Segment.PROBATION;
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void evict() {
+        // Entries pushed out of the window become admission candidates at the recent end of probation
+        Deque<K> candidates = new ArrayDeque<>();
+        Iterator<Map.Entry<K, Node<V>>> windowIterator = window.entrySet().iterator();
+        while (windowWeight > maxWindowWeight && windowIterator.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = windowIterator.next();
+            windowIterator.remove();
+            windowWeight -= eldest.getValue().weight;
+            eldest.getValue().segment = Segment.PROBATION;
+            probation.put(eldest.getKey(), eldest.getValue());
+            candidates.add(eldest.getKey());
+        }
+
+        while (totalWeight > maxWeight) {
+            K victim = eldestKey(probation);
+            if (victim == null) {
+                victim = eldestKey(protectedSegment);
+            }
+            if (victim == null) {
+                victim = eldestKey(window);
+            }
+            while (!candidates.isEmpty() && !nodes.containsKey(candidates.peekFirst())) {
+                candidates.pollFirst();
+            }
+            K candidate = candidates.peekFirst();
+            if (candidate != null && !candidate.equals(victim)) {
+                // TinyLFU admission: the less frequently used of the two goes
+                if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+                    evictEntry(victim);
+                } else {
+                    candidates.pollFirst();
+                    evictEntry(candidate);
+                }
+            } else {
+                evictEntry(victim);
+            }
+        }
+    }
+
+    private void evictEntry(K key) {
+        unlink(key, nodes.get(key));
+        evictions.increment();
+    }
+
+    private void unlink(K key, Node<V> node) {
+        nodes.remove(key);
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(key);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> probation.remove(key);
+            case PROTECTED -> {
+                protectedSegment.remove(key);
+                protectedWeight -= node.weight;
+            }
+        }
+        node.segment = null;
+        totalWeight -= node.weight;
+    }
+
+    private void moveToEnd(LinkedHashMap<K, Node<V>> segment, K key, Node<V> node) {
+        segment.remove(key);
+        segment.put(key, node);
+    }
+
+    private K eldestKey(LinkedHashMap<K, Node<V>> segment) {
+        return segment.isEmpty() ? null : segment.keySet().iterator().next();
+    }
+}
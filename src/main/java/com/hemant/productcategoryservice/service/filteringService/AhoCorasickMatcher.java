@@ -0,0 +1,96 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import java.util.*;
+
+// Multi-pattern substring matcher: built once per set of filter values, then each text is scanned
+// a single time no matter how many values there are
+public class AhoCorasickMatcher {
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private int[] failure;
+    private boolean[] terminal;
+    private final boolean ignoreCase;
+    private final boolean matchesEverything;
+
+    public AhoCorasickMatcher(Collection<String> patterns, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        transitions.add(new HashMap<>());
+        List<Integer> terminalStates = new ArrayList<>();
+        boolean hasEmptyPattern = false;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                hasEmptyPattern = true;
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = normalize(pattern.charAt(i));
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new HashMap<>());
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminalStates.add(state);
+        }
+        // "".contains("") semantics: an empty value matches every text
+        this.matchesEverything = hasEmptyPattern;
+
+        terminal = new boolean[transitions.size()];
+        for (int state : terminalStates) {
+            terminal[state] = true;
+        }
+        buildFailureLinks();
+    }
+
+    public boolean matchesAny(String text) {
+        if (matchesEverything) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            Integer next = transitions.get(state).get(c);
+            while (next == null && state != 0) {
+                state = failure[state];
+                next = transitions.get(state).get(c);
+            }
+            state = next == null ? 0 : next;
+            if (terminal[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Breadth-first so a state's failure target is always finished before the state itself
+    private void buildFailureLinks() {
+        failure = new int[transitions.size()];
+        Deque<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                while (target == null && fallback != 0) {
+                    fallback = failure[fallback];
+                    target = transitions.get(fallback).get(edge.getKey());
+                }
+                failure[child] = target == null || target == child ? 0 : target;
+                // a state also ends every pattern that ends at its failure target
+                terminal[child] |= terminal[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private char normalize(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+}
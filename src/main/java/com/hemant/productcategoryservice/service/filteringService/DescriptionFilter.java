@@ -3,14 +3,26 @@ package com.hemant.productcategoryservice.service.filteringService;
 import com.hemant.productcategoryservice.models.Product;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public class DescriptionFilter implements Filter {
+    // Share of products a single keyword is expected to match: a word most descriptions don't contain
+    private static final double KEYWORD_SELECTIVITY = 0.1;
+    private final boolean ignoreCase;
+
+    public DescriptionFilter(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    @Override
+    public Predicate<Product> toPredicate(List<String> allowedValues) {
+        // One automaton for all keywords, so each description is scanned once
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(allowedValues, ignoreCase);
+        return product -> matcher.matchesAny(product.getDescription());
+    }
+
     @Override
-    public List<Product> apply(List<Product> products, List<String> allowedValues) {
-        // Implement the filtering logic based on product description
-        return products.stream()
-                .filter(product -> allowedValues.stream()
-                        .anyMatch(value -> product.getDescription().contains(value)))
-                .toList();
+    public double estimateSelectivity(List<String> allowedValues) {
+        return 1 - Math.pow(1 - KEYWORD_SELECTIVITY, allowedValues.size());
     }
 }
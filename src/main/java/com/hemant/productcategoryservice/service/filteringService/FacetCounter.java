@@ -0,0 +1,100 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.dtos.CategoryFacetDto;
+import com.hemant.productcategoryservice.dtos.PriceBucketDto;
+import com.hemant.productcategoryservice.dtos.SearchFacetsDto;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+
+import java.util.*;
+
+// Counts matches per category and per price bucket while the filter pass runs.
+// Counters are plain long slots so counting a product allocates nothing.
+public class FacetCounter {
+
+    private final double[] bucketBounds;
+    private final long[] bucketCounts;
+    private final Map<Long, long[]> categoryCounts = new HashMap<>();
+    private final Map<Long, String> categoryTitles = new HashMap<>();
+
+    // n ascending bounds make n + 1 buckets: (-inf, b0), [b0, b1), ..., [bn-1, +inf)
+    public FacetCounter(double[] bucketBounds) {
+        this.bucketBounds = bucketBounds.clone();
+        Arrays.sort(this.bucketBounds);
+        this.bucketCounts = new long[this.bucketBounds.length + 1];
+    }
+
+    public void add(Product product) {
+        Category category = product.getCategory();
+        if (category != null && category.getId() != null) {
+            long[] counter = categoryCounts.get(category.getId());
+            if (counter == null) {
+                counter = new long[1];
+                categoryCounts.put(category.getId(), counter);
+                categoryTitles.put(category.getId(), category.getTitle());
+            }
+            counter[0]++;
+        }
+        if (product.getPrice() != null) {
+            bucketCounts[bucket(product.getPrice())]++;
+        }
+    }
+
+    // Adds the counts of another counter built with the same bounds, e.g. from another shard
+    public void merge(FacetCounter other) {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] += other.bucketCounts[i];
+        }
+        for (Map.Entry<Long, long[]> entry : other.categoryCounts.entrySet()) {
+            long[] counter = categoryCounts.get(entry.getKey());
+            if (counter == null) {
+                categoryCounts.put(entry.getKey(), new long[]{entry.getValue()[0]});
+                categoryTitles.put(entry.getKey(), other.categoryTitles.get(entry.getKey()));
+            } else {
+                counter[0] += entry.getValue()[0];
+            }
+        }
+    }
+
+    public SearchFacetsDto toDto() {
+        List<CategoryFacetDto> categories = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : categoryCounts.entrySet()) {
+            CategoryFacetDto categoryFacet = new CategoryFacetDto();
+            categoryFacet.setCategoryId(entry.getKey());
+            categoryFacet.setTitle(categoryTitles.get(entry.getKey()));
+            categoryFacet.setCount(entry.getValue()[0]);
+            categories.add(categoryFacet);
+        }
+        // Most matches first; equal counts by category id, so the order does not depend on the map
+        categories.sort(Comparator.comparingLong(CategoryFacetDto::getCount).reversed().thenComparing(CategoryFacetDto::getCategoryId));
+
+        List<PriceBucketDto> priceBuckets = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            PriceBucketDto priceBucket = new PriceBucketDto();
+            priceBucket.setMin(i == 0 ? null : bucketBounds[i - 1]);
+            priceBucket.setMax(i == bucketBounds.length ? null : bucketBounds[i]);
+            priceBucket.setCount(bucketCounts[i]);
+            priceBuckets.add(priceBucket);
+        }
+
+        SearchFacetsDto facets = new SearchFacetsDto();
+        facets.setCategories(categories);
+        facets.setPriceBuckets(priceBuckets);
+        return facets;
+    }
+
+    // Number of bounds <= price, found by binary search
+    private int bucket(double price) {
+        int low = 0;
+        int high = bucketBounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketBounds[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -3,7 +3,18 @@ package com.hemant.productcategoryservice.service.filteringService;
 import com.hemant.productcategoryservice.models.Product;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface Filter {
-    List<Product> apply(List<Product> products, List<String> allowedValues);
+    Predicate<Product> toPredicate(List<String> allowedValues);
+
+    // Rough fraction of products expected to pass, so the most selective filter can run first. The per-value
+    // shares behind the estimates are rules of thumb rather than measurements; only their order matters.
+    double estimateSelectivity(List<String> allowedValues);
+
+    default List<Product> apply(List<Product> products, List<String> allowedValues) {
+        return products.stream()
+                .filter(toPredicate(allowedValues))
+                .toList();
+    }
 }
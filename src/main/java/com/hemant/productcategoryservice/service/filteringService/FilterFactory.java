@@ -1,11 +1,95 @@
 package com.hemant.productcategoryservice.service.filteringService;
 
+import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.TinyLfuCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Predicate;
+
+@Component
 public class FilterFactory {
+
+    private static final int MAX_CACHED_PLANS = 1000;
+    // A plan only depends on its signature, so it never goes stale
+    private static final Duration PLAN_LIFETIME = Duration.ofNanos(Long.MAX_VALUE);
+
+    // Compiled plans keyed by normalized filter signature; hits are lock-free, one-off filter sets don't evict common ones
+    private final TinyLfuCache<String, FilterPlan> planCache = new TinyLfuCache<>(MAX_CACHED_PLANS, PLAN_LIFETIME, plan -> 1, MAX_CACHED_PLANS);
+
     public static Filter getFilterFromKey(String key) {
+        return getFilterFromKey(key, false);
+    }
+
+    public static Filter getFilterFromKey(String key, boolean ignoreCase) {
         return switch (key) {
-            case "description" -> new DescriptionFilter();
-            case "pricelessly" -> new PriceAndTitleFilter();
+            case "description" -> new DescriptionFilter(ignoreCase);
+            case "pricelessly" -> new PriceAndTitleFilter(ignoreCase);
+            case "priceRange" -> new PriceRangeFilter();
             default -> null;
         };
     }
+
+    public FilterPlan compile(List<FilterDto> filters) {
+        SortedMap<String, FilterDto> normalized = normalize(filters);
+        String signature = signature(normalized);
+        FilterPlan plan = planCache.get(signature);
+        if (plan == null) {
+            plan = buildPlan(normalized.values());
+            planCache.put(signature, plan);
+        }
+        return plan;
+    }
+
+    // Same string for every filter list that selects the same products, whatever the order, duplicates or,
+    // for case-insensitive filters, letter case of the values
+    public static String signature(List<FilterDto> filters) {
+        return signature(normalize(filters));
+    }
+
+    private static String signature(SortedMap<String, FilterDto> normalized) {
+        return String.join("&", normalized.keySet());
+    }
+
+    // Filters are ANDed and values ORed, so ordering and duplicates do not change the result
+    private static SortedMap<String, FilterDto> normalize(List<FilterDto> filters) {
+        SortedMap<String, FilterDto> normalized = new TreeMap<>();
+        for (FilterDto filter : filters) {
+            Set<String> values = new TreeSet<>();
+            for (String value : filter.getValues()) {
+                values.add(filter.isIgnoreCase() ? value.toLowerCase(Locale.ROOT) : value);
+            }
+            FilterDto normalizedFilter = new FilterDto();
+            normalizedFilter.setKey(filter.getKey());
+            normalizedFilter.setValues(new ArrayList<>(values));
+            normalizedFilter.setIgnoreCase(filter.isIgnoreCase());
+            // values are length-prefixed so that no value can pass for a separator
+            StringBuilder signature = new StringBuilder(filter.getKey()).append(filter.isIgnoreCase() ? '~' : '=');
+            for (String value : values) {
+                signature.append(value.length()).append(':').append(value);
+            }
+            normalized.put(signature.toString(), normalizedFilter);
+        }
+        return normalized;
+    }
+
+    private static FilterPlan buildPlan(Collection<FilterDto> filters) {
+        List<Map.Entry<Filter, List<String>>> compiled = new ArrayList<>();
+        for (FilterDto filterDto : filters) {
+            Filter filter = getFilterFromKey(filterDto.getKey(), filterDto.isIgnoreCase());
+            if (filter == null) {
+                throw new IllegalArgumentException("Unknown filter key: " + filterDto.getKey());
+            }
+            compiled.add(Map.entry(filter, filterDto.getValues()));
+        }
+        compiled.sort(Comparator.comparingDouble(entry -> entry.getKey().estimateSelectivity(entry.getValue())));
+
+        List<Predicate<Product>> predicates = new ArrayList<>();
+        for (Map.Entry<Filter, List<String>> entry : compiled) {
+            predicates.add(entry.getKey().toPredicate(entry.getValue()));
+        }
+        return new FilterPlan(predicates);
+    }
 }
@@ -0,0 +1,41 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.models.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// All filters of a search fused into one predicate, most selective first, evaluated in a single pass
+public class FilterPlan implements Predicate<Product> {
+
+    private final Predicate<Product>[] predicates;
+
+    @SuppressWarnings("unchecked")
+    FilterPlan(List<Predicate<Product>> predicates) {
+        this.predicates = predicates.toArray(new Predicate[0]);
+    }
+
+    @Override
+    public boolean test(Product product) {
+        for (Predicate<Product> predicate : predicates) {
+            if (!predicate.test(product)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<Product> apply(List<Product> products) {
+        if (predicates.length == 0) {
+            return products;
+        }
+        List<Product> filtered = new ArrayList<>();
+        for (Product product : products) {
+            if (test(product)) {
+                filtered.add(product);
+            }
+        }
+        return filtered;
+    }
+}
@@ -3,15 +3,28 @@ package com.hemant.productcategoryservice.service.filteringService;
 import com.hemant.productcategoryservice.models.Product;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public class PriceAndTitleFilter implements Filter {
+    // Share of products a single value is expected to match against title or price: half a description
+    // keyword's, since titles are a few words long and a price text only matches its own digits
+    private static final double VALUE_SELECTIVITY = 0.05;
+    private final boolean ignoreCase;
+
+    public PriceAndTitleFilter(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    @Override
+    public Predicate<Product> toPredicate(List<String> allowedValues) {
+        // One automaton for all values, run once over the title and once over the price text
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(allowedValues, ignoreCase);
+        return product -> matcher.matchesAny(product.getTitle())
+                || matcher.matchesAny(String.valueOf(product.getPrice()));
+    }
+
     @Override
-    public List<Product> apply(List<Product> products, List<String> allowedValues) {
-        // Implement the filtering logic based on product price and title
-        return products.stream()
-                .filter(product -> allowedValues.stream()
-                        .anyMatch(value -> product.getTitle().contains(value) ||
-                                          String.valueOf(product.getPrice()).contains(value)))
-                .toList();
+    public double estimateSelectivity(List<String> allowedValues) {
+        return 1 - Math.pow(1 - VALUE_SELECTIVITY, allowedValues.size());
     }
 }
@@ -0,0 +1,71 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import lombok.Getter;
+
+// A price interval written in interval notation: "[100,500]", "(100,500)", "[100,]" or "[,500)".
+// Square brackets are inclusive, round brackets exclusive, a missing bound is unbounded.
+@Getter
+public class PriceRange {
+    private final Double min;
+    private final Double max;
+    private final boolean minInclusive;
+    private final boolean maxInclusive;
+
+    public PriceRange(Double min, boolean minInclusive, Double max, boolean maxInclusive) {
+        this.min = min;
+        this.max = max;
+        this.minInclusive = minInclusive;
+        this.maxInclusive = maxInclusive;
+    }
+
+    public static PriceRange parse(String value) {
+        String range = value == null ? "" : value.trim();
+        int comma = range.indexOf(',');
+        if (range.length() < 3 || comma < 0
+                || "[(".indexOf(range.charAt(0)) < 0
+                || "])".indexOf(range.charAt(range.length() - 1)) < 0) {
+            throw new IllegalArgumentException("Invalid price range: " + value + ", expected e.g. [100,500)");
+        }
+        PriceRange priceRange;
+        try {
+            priceRange = new PriceRange(
+                    parseBound(range.substring(1, comma)),
+                    range.charAt(0) == '[',
+                    parseBound(range.substring(comma + 1, range.length() - 1)),
+                    range.charAt(range.length() - 1) == ']');
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price range: " + value + ", expected e.g. [100,500)");
+        }
+        if (priceRange.isEmpty()) {
+            throw new IllegalArgumentException("Invalid price range: " + value + ", the lower bound must be below the upper bound");
+        }
+        return priceRange;
+    }
+
+    public boolean contains(double price) {
+        if (min != null && (minInclusive ? price < min : price <= min)) {
+            return false;
+        }
+        return max == null || (maxInclusive ? price <= max : price < max);
+    }
+
+    // No price lies in (5,5) or [500,100)
+    private boolean isEmpty() {
+        if (min == null || max == null) {
+            return false;
+        }
+        return min > max || (min.equals(max) && !(minInclusive && maxInclusive));
+    }
+
+    // NaN and infinities are rejected like any other non-number: no price compares sensibly against NaN
+    private static Double parseBound(String bound) {
+        if (bound.isBlank()) {
+            return null;
+        }
+        double parsed = Double.parseDouble(bound.trim());
+        if (!Double.isFinite(parsed)) {
+            throw new NumberFormatException("Not a finite price: " + bound);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.models.Product;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public class PriceRangeFilter implements Filter {
+    // Share of products a single price range is expected to match: twice a description keyword's, since
+    // a range usually spans a sizeable band of the catalog's prices
+    private static final double RANGE_SELECTIVITY = 0.2;
+
+    @Override
+    public Predicate<Product> toPredicate(List<String> allowedValues) {
+        // Plain double comparisons, no per-product string conversion
+        PriceRange[] ranges = parseRanges(allowedValues).toArray(new PriceRange[0]);
+        return product -> {
+            double price = product.getPrice();
+            for (PriceRange range : ranges) {
+                if (range.contains(price)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public double estimateSelectivity(List<String> allowedValues) {
+        return Math.min(1.0, RANGE_SELECTIVITY * allowedValues.size());
+    }
+
+    public static List<PriceRange> parseRanges(List<String> allowedValues) {
+        return allowedValues.stream().map(PriceRange::parse).toList();
+    }
+}
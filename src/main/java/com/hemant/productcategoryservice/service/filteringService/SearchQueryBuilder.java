@@ -0,0 +1,136 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.models.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Compiles /search filters and sorting into a JPA query so the database does the filtering, ordering and paging
+public class SearchQueryBuilder {
+
+    private static final char LIKE_ESCAPE = '\\';
+    // The default collation ignores case and accents; filters compare bytes like the in-memory matcher does
+    private static final String BINARY_COLLATION = "utf8mb4_bin";
+    // Sort fields of /search/byCategory, each backed by a (category_id, field) index on products
+    private static final Set<String> CATEGORY_SORT_FIELDS = Set.of("id", "price", "title", "createdAt");
+
+    public static boolean canTranslate(List<FilterDto> filters) {
+        for (FilterDto filter : filters) {
+            if (!isTranslatable(filter.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Relevance scores only exist in the in-memory index
+    public static boolean canTranslate(SortingCriteria sortingCriteria) {
+        return sortingCriteria != SortingCriteria.RELEVANCE;
+    }
+
+    public static Specification<Product> fromFilters(List<FilterDto> filters) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (FilterDto filter : filters) {
+                List<Predicate> anyOf = new ArrayList<>();
+                for (String value : filter.getValues()) {
+                    boolean ignoreCase = filter.isIgnoreCase();
+                    switch (filter.getKey()) {
+                        case "description" -> anyOf.add(contains(cb, root.get("description"), value, ignoreCase));
+                        case "priceRange" -> anyOf.add(between(cb, root.get("price"), PriceRange.parse(value)));
+                        default -> throw new IllegalArgumentException("Filter key cannot be pushed down: " + filter.getKey());
+                    }
+                }
+                // Same as the in-memory filters: a filter with no values matches nothing
+                predicates.add(anyOf.isEmpty() ? cb.disjunction() : cb.or(anyOf.toArray(new Predicate[0])));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Sort toSort(SortingCriteria sortingCriteria) {
+        // id as a tie-breaker keeps pages stable when prices repeat
+        return switch (sortingCriteria) {
+            case PRICE_LOW_TO_HIGH -> Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case PRICE_HIGH_TO_LOW -> Sort.by(Sort.Order.desc("price"), Sort.Order.asc("id"));
+            case RELEVANCE -> throw new IllegalArgumentException("Relevance ordering cannot be pushed down");
+        };
+    }
+
+    // Parses "field" or "field,asc|desc". The id tie-breaker follows the field's direction so that
+    // MySQL can read the composite index (which ends with the primary key) forwards or backwards instead of sorting.
+    public static Sort toCategorySort(String sortingAttribute) {
+        String[] parts = sortingAttribute == null ? new String[0] : sortingAttribute.split(",");
+        if (parts.length == 0 || parts.length > 2 || !CATEGORY_SORT_FIELDS.contains(parts[0].trim())) {
+            throw new IllegalArgumentException("Unsupported sorting attribute: " + sortingAttribute + ", expected one of " + CATEGORY_SORT_FIELDS);
+        }
+        String property = parts[0].trim();
+        Sort.Direction direction = parts.length == 1
+                ? Sort.Direction.ASC
+                : Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported sort direction: " + sortingAttribute));
+        if (property.equals("id")) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(new Sort.Order(direction, property), new Sort.Order(direction, "id"));
+    }
+
+    // pricelessly stays in memory: MySQL prints 199.0 as "199" where Java prints "199.0", so a value like
+    // ".0" would match differently
+    private static boolean isTranslatable(String key) {
+        return switch (key) {
+            case "description", "priceRange" -> true;
+            default -> false;
+        };
+    }
+
+    public static Predicate contains(CriteriaBuilder cb, Expression<String> expression, String value) {
+        return cb.like(expression, "%" + escapeLike(value) + "%", LIKE_ESCAPE);
+    }
+
+    // Same result as the in-memory AhoCorasickMatcher: an empty value matches every row, even a null column
+    public static Predicate contains(CriteriaBuilder cb, Expression<String> expression, String value, boolean ignoreCase) {
+        if (value.isEmpty()) {
+            return cb.conjunction();
+        }
+        if (!ignoreCase) {
+            return contains(cb, ((HibernateCriteriaBuilder) cb).collate(expression, BINARY_COLLATION), value);
+        }
+        // lowercased on both sides and then compared as bytes, so accents are not folded away as the default collation would
+        return cb.like(((HibernateCriteriaBuilder) cb).collate(cb.lower(expression), BINARY_COLLATION),
+                "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    // Sargable bounds on price so the database can range-scan the price index
+    private static Predicate between(CriteriaBuilder cb, Expression<Double> price, PriceRange range) {
+        List<Predicate> bounds = new ArrayList<>();
+        if (range.getMin() != null) {
+            bounds.add(range.isMinInclusive() ? cb.greaterThanOrEqualTo(price, range.getMin()) : cb.greaterThan(price, range.getMin()));
+        }
+        if (range.getMax() != null) {
+            bounds.add(range.isMaxInclusive() ? cb.lessThanOrEqualTo(price, range.getMax()) : cb.lessThan(price, range.getMax()));
+        }
+        return cb.and(bounds.toArray(new Predicate[0]));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
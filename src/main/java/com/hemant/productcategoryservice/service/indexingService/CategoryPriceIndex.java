@@ -0,0 +1,119 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.filteringService.PriceRange;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Product ids ordered by price for each category, so price-sorted category browsing is an array copy.
+// A price range over the whole catalog is a binary search per category and a merge of the slices; there
+// is no whole-catalog column, so a write only copies the arrays of its own category.
+@Component
+public class CategoryPriceIndex implements ProductIndex {
+
+    private record Entry(long categoryId, double price) {}
+
+    private final Map<Long, PriceColumn> columns = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void index(Product product) {
+        if (!isIndexable(product)) {
+            return;
+        }
+        remove(product.getId());
+        Entry entry = new Entry(product.getCategory().getId(), product.getPrice());
+        columns.put(entry.categoryId(), column(entry.categoryId()).insert(product.getId(), entry.price()));
+        entries.put(product.getId(), entry);
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        PriceColumn column = column(entry.categoryId()).remove(productId, entry.price());
+        if (column.size() == 0) {
+            columns.remove(entry.categoryId());
+        } else {
+            columns.put(entry.categoryId(), column);
+        }
+    }
+
+    @Override
+    public synchronized void indexAll(List<Product> products) {
+        // Sort the batch per category and merge it in once instead of one array copy per product
+        Map<Long, List<Product>> batches = new HashMap<>();
+        for (Product product : products) {
+            if (!isIndexable(product)) {
+                continue;
+            }
+            remove(product.getId());
+            batches.computeIfAbsent(product.getCategory().getId(), id -> new ArrayList<>()).add(product);
+        }
+        for (Map.Entry<Long, List<Product>> batch : batches.entrySet()) {
+            for (Product product : batch.getValue()) {
+                entries.put(product.getId(), new Entry(batch.getKey(), product.getPrice()));
+            }
+            columns.put(batch.getKey(), merge(column(batch.getKey()), batch.getValue()));
+        }
+    }
+
+    public int size(Long categoryId) {
+        return column(categoryId).size();
+    }
+
+    // Ids on positions [from, to) of the category ordered by price
+    public long[] page(Long categoryId, boolean descending, int from, int to) {
+        PriceColumn column = column(categoryId);
+        return descending ? column.sliceDescending(from, to) : column.slice(from, to);
+    }
+
+    // Ids of all products priced within the range, cheapest first and equal prices by id.
+    // A product moving to another category while this runs may be missed or returned twice.
+    public long[] priceRange(PriceRange range) {
+        List<PriceColumn.Slice> slices = new ArrayList<>();
+        for (PriceColumn column : columns.values()) {
+            int from = start(column, range);
+            int to = end(column, range);
+            if (from < to) {
+                slices.add(new PriceColumn.Slice(column, from, to));
+            }
+        }
+        return PriceColumn.mergeSlices(slices);
+    }
+
+    private int start(PriceColumn column, PriceRange range) {
+        return range.getMin() == null ? 0 : column.lowerBound(range.getMin(), !range.isMinInclusive());
+    }
+
+    private int end(PriceColumn column, PriceRange range) {
+        return range.getMax() == null ? column.size() : column.lowerBound(range.getMax(), range.isMaxInclusive());
+    }
+
+    private PriceColumn merge(PriceColumn column, List<Product> products) {
+        products.sort(Comparator.comparingDouble(Product::getPrice).thenComparingLong(Product::getId));
+        long[] ids = new long[products.size()];
+        double[] prices = new double[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).getId();
+            prices[i] = products.get(i).getPrice();
+        }
+        return column.merge(ids, prices);
+    }
+
+    private PriceColumn column(Long categoryId) {
+        return columns.getOrDefault(categoryId, PriceColumn.EMPTY);
+    }
+
+    private boolean isIndexable(Product product) {
+        return product != null
+                && product.getId() != null
+                && product.getPrice() != null
+                && product.getCategory() != null
+                && product.getCategory().getId() != null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import com.hemant.productcategoryservice.service.filteringService.SearchQueryBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Previous behaviour (LIKE '%query%' on title), kept selectable with search.engine=database
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "database")
+public class DatabaseSearchEngine implements SearchEngine {
+
+    private final ProductRepository productRepository;
+
+    public DatabaseSearchEngine(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public void index(Product product) {
+        // nothing to maintain, the database is the index
+    }
+
+    @Override
+    public void remove(Long productId) {
+        // nothing to maintain, the database is the index
+    }
+
+    @Override
+    public List<Product> search(String query) {
+        return productRepository.findByTitleContaining(query);
+    }
+
+    @Override
+    public List<Product> findAllById(long[] ids) {
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(idList)) {
+            productsById.put(product.getId(), product);
+        }
+        List<Product> products = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public Specification<Product> toSpecification(String query) {
+        return (root, criteriaQuery, cb) -> SearchQueryBuilder.contains(cb, root.get("title"), query);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "inverted-index", matchIfMissing = true)
+public class InvertedIndexSearchEngine implements SearchEngine {
+
+    // Above this many matches an id IN (...) list stops being cheaper than searching in memory
+    private static final int MAX_PUSHDOWN_IDS = 1000;
+
+    // token -> ids of products whose title or description contains the token
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    // id -> tokens the product was indexed under, needed to undo an entry on update/delete
+    private final Map<Long, Set<String>> termsByProduct = new ConcurrentHashMap<>();
+    // Ordered by id: matches are returned in id order, the tie-break the database path sorts by as well
+    private final Map<Long, Product> documents = new ConcurrentSkipListMap<>();
+
+    @Override
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+
+        Set<String> terms = new HashSet<>(Tokenizer.tokenize(product.getTitle()));
+        terms.addAll(Tokenizer.tokenize(product.getDescription()));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+        termsByProduct.put(product.getId(), terms);
+        documents.put(product.getId(), product);
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Product> search(String query) {
+        if (Tokenizer.tokenize(query).isEmpty()) {
+            return new ArrayList<>(documents.values());
+        }
+        List<Product> products = new ArrayList<>();
+        for (Long id : matchingIds(query)) {
+            Product product = documents.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findAllById(long[] ids) {
+        List<Product> products = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Product product = documents.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public Specification<Product> toSpecification(String query) {
+        if (Tokenizer.tokenize(query).isEmpty()) {
+            return (root, criteriaQuery, cb) -> cb.conjunction();
+        }
+        List<Long> ids = matchingIds(query);
+        if (ids.size() > MAX_PUSHDOWN_IDS) {
+            return null;
+        }
+        return (root, criteriaQuery, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    private List<Long> matchingIds(String query) {
+        // Intersect starting from the rarest token so the work is bounded by the smallest posting list
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String token : new HashSet<>(Tokenizer.tokenize(query))) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> matches = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean matchesAll = true;
+            for (int i = 1; i < lists.size() && matchesAll; i++) {
+                matchesAll = lists.get(i).contains(id);
+            }
+            if (matchesAll) {
+                matches.add(id);
+            }
+        }
+        matches.sort(null);
+        return matches;
+    }
+}
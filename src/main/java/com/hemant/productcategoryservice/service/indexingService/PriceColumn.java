@@ -0,0 +1,161 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Immutable pair of parallel arrays ordered by (price, id). Writers build a new column and swap it in,
+// so readers can binary search and copy slices without locking.
+public class PriceColumn {
+
+    public static final PriceColumn EMPTY = new PriceColumn(new long[0], new double[0]);
+
+    // Positions [from, to) of a column
+    public record Slice(PriceColumn column, int from, int to) {}
+
+    private final long[] ids;
+    private final double[] prices;
+
+    private PriceColumn(long[] ids, double[] prices) {
+        this.ids = ids;
+        this.prices = prices;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Ids at ascending positions [from, to)
+    public long[] slice(int from, int to) {
+        from = Math.max(0, Math.min(from, ids.length));
+        to = Math.max(from, Math.min(to, ids.length));
+        return Arrays.copyOfRange(ids, from, to);
+    }
+
+    // Ids at positions [from, to) of the highest-price-first order
+    public long[] sliceDescending(int from, int to) {
+        long[] slice = slice(ids.length - Math.min(to, ids.length), ids.length - Math.min(from, ids.length));
+        for (int i = 0, j = slice.length - 1; i < j; i++, j--) {
+            long id = slice[i];
+            slice[i] = slice[j];
+            slice[j] = id;
+        }
+        return slice;
+    }
+
+    // First position whose price is >= price (or > price when exclusive)
+    public int lowerBound(double price, boolean exclusive) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int compare = Double.compare(prices[mid], price);
+            if (compare < 0 || (exclusive && compare == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public PriceColumn insert(long id, double price) {
+        int position = position(id, price);
+        long[] newIds = new long[ids.length + 1];
+        double[] newPrices = new double[prices.length + 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(prices, 0, newPrices, 0, position);
+        newIds[position] = id;
+        newPrices[position] = price;
+        System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+        System.arraycopy(prices, position, newPrices, position + 1, prices.length - position);
+        return new PriceColumn(newIds, newPrices);
+    }
+
+    public PriceColumn remove(long id, double price) {
+        int position = position(id, price);
+        if (position >= ids.length || ids[position] != id) {
+            return this;
+        }
+        long[] newIds = new long[ids.length - 1];
+        double[] newPrices = new double[prices.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(prices, 0, newPrices, 0, position);
+        System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+        System.arraycopy(prices, position + 1, newPrices, position, prices.length - position - 1);
+        return new PriceColumn(newIds, newPrices);
+    }
+
+    // Merges entries that are already ordered by (price, id) in a single linear pass
+    public PriceColumn merge(long[] otherIds, double[] otherPrices) {
+        long[] newIds = new long[ids.length + otherIds.length];
+        double[] newPrices = new double[newIds.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < newIds.length; k++) {
+            boolean takeOther = i == ids.length
+                    || (j < otherIds.length && compare(otherPrices[j], otherIds[j], prices[i], ids[i]) < 0);
+            if (takeOther) {
+                newIds[k] = otherIds[j];
+                newPrices[k] = otherPrices[j++];
+            } else {
+                newIds[k] = ids[i];
+                newPrices[k] = prices[i++];
+            }
+        }
+        return new PriceColumn(newIds, newPrices);
+    }
+
+    // Ids of several slices merged into one (price, id) order through a heap over the slice heads
+    public static long[] mergeSlices(List<Slice> slices) {
+        int total = 0;
+        for (Slice slice : slices) {
+            total += slice.to() - slice.from();
+        }
+        long[] merged = new long[total];
+        if (slices.size() == 1) {
+            System.arraycopy(slices.get(0).column().ids, slices.get(0).from(), merged, 0, total);
+            return merged;
+        }
+        int[] next = new int[slices.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, slices.size()), (a, b) -> {
+            PriceColumn columnA = slices.get(a).column();
+            PriceColumn columnB = slices.get(b).column();
+            return compare(columnA.prices[next[a]], columnA.ids[next[a]], columnB.prices[next[b]], columnB.ids[next[b]]);
+        });
+        for (int i = 0; i < slices.size(); i++) {
+            next[i] = slices.get(i).from();
+            if (next[i] < slices.get(i).to()) {
+                heads.add(i);
+            }
+        }
+        for (int k = 0; k < total; k++) {
+            int head = heads.poll();
+            merged[k] = slices.get(head).column().ids[next[head]++];
+            if (next[head] < slices.get(head).to()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    // Position of (price, id), or where it would be inserted
+    private int position(long id, double price) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(prices[mid], ids[mid], price, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double priceA, long idA, double priceB, long idB) {
+        int compare = Double.compare(priceA, priceB);
+        return compare != 0 ? compare : Long.compare(idA, idB);
+    }
+}
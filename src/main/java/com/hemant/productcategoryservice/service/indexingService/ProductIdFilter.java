@@ -0,0 +1,93 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.TinyLfuCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Answers "can this product id exist?" from memory, so lookups of made-up ids fail without a Redis or
+// database round trip. A Bloom filter holds every id this node has indexed: ProductIndexSync feeds it the
+// creates made here and, over its change channel, those made on other nodes. Only an id above the highest
+// one known here can belong to a create whose announcement hasn't arrived yet, so only those get through
+// unchecked. Bits can't be taken out of a Bloom filter: a deleted id is turned away by a small negative
+// cache for a while and drops out for good when the next reconcile pass rebuilds the filter.
+@Component
+public class ProductIdFilter implements ProductIndex {
+
+    private final long expectedProducts;
+    private final double falsePositiveRate;
+    private final TinyLfuCache<Long, Boolean> missingIds;
+    private final AtomicLong highestKnownId = new AtomicLong();
+    private volatile BloomFilter knownIds;
+    // Filled during a pass and swapped in at its end, so ids deleted since the last pass drop out
+    private volatile BloomFilter rebuiltIds;
+    // Until the catalog is loaded the filter knows nothing and must let every id through
+    private volatile boolean loaded;
+
+    public ProductIdFilter(@Value("${cache.id-filter.expected-products:1000000}") long expectedProducts,
+                           @Value("${cache.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${cache.id-filter.negative-cache-size:10000}") int negativeCacheSize,
+                           @Value("${cache.id-filter.negative-cache-ttl:PT1M}") Duration negativeCacheTtl) {
+        this.expectedProducts = expectedProducts;
+        this.falsePositiveRate = falsePositiveRate;
+        this.knownIds = new BloomFilter(expectedProducts, falsePositiveRate);
+        this.missingIds = new TinyLfuCache<>(negativeCacheSize, negativeCacheTtl, missing -> 1, negativeCacheSize);
+    }
+
+    // A create made on another node moments ago can be turned away here if its announcement arrives after
+    // that of a higher id; the window is the pub/sub delay
+    public boolean mightExist(Long productId) {
+        if (!loaded || productId > highestKnownId.get()) {
+            return true;
+        }
+        if (missingIds.get(productId) != null) {
+            return false;
+        }
+        return knownIds.mightContain(productId);
+    }
+
+    // The database had no product with this id. Only ids below the highest existing one are remembered: ids are
+    // never reused, so those can't be created later, while a higher id may belong to a create still to come.
+    public void recordMissing(Long productId) {
+        if (productId <= highestKnownId.get()) {
+            missingIds.put(productId, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        knownIds.put(product.getId());
+        BloomFilter rebuilding = rebuiltIds;
+        if (rebuilding != null) {
+            rebuilding.put(product.getId());
+        }
+        highestKnownId.accumulateAndGet(product.getId(), Math::max);
+        missingIds.invalidate(product.getId());
+    }
+
+    @Override
+    public void remove(Long productId) {
+        recordMissing(productId);
+    }
+
+    @Override
+    public void loadStarted() {
+        rebuiltIds = new BloomFilter(expectedProducts, falsePositiveRate);
+    }
+
+    @Override
+    public void loaded() {
+        BloomFilter rebuilt = rebuiltIds;
+        if (rebuilt != null) {
+            knownIds = rebuilt;
+            rebuiltIds = null;
+        }
+        loaded = true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+
+import java.util.List;
+
+// Any in-memory structure derived from the product catalog.
+// Built and kept in step with the database, on every node, by ProductIndexSync.
+public interface ProductIndex {
+    void index(Product product);
+
+    void remove(Long productId);
+
+    // Bulk variant used while loading; indexes with a cheaper batch build override it
+    default void indexAll(List<Product> products) {
+        for (Product product : products) {
+            index(product);
+        }
+    }
+
+    // Called when ProductIndexSync starts a pass over the whole catalog
+    default void loadStarted() {
+    }
+
+    // Called each time ProductIndexSync has gone over the whole catalog
+    default void loaded() {
+    }
+}
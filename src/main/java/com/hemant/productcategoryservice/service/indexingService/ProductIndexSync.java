@@ -0,0 +1,227 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Keeps every ProductIndex on this node in step with the database. A write made on this node is applied here at
+// once and announced on a Redis channel, so the other nodes apply it too. A full pass over the table builds the
+// indexes at startup (run by CatalogWarmup) and runs again periodically to repair what a lost message left behind.
+@Component
+public class ProductIndexSync implements MessageListener {
+
+    public static final String CHANGES_CHANNEL = "PRODUCTS_INDEX_CHANGES";
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexSync.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final String UPDATED = "U";
+    private static final String DELETED = "D";
+    private static final String CATEGORY_CHANGED = "C";
+
+    private final ProductRepository productRepository;
+    private final List<ProductIndex> productIndexes;
+    private final StringRedisTemplate stringRedisTemplate;
+    // Lets a node tell its own announcements apart from the others'
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Guards the fields below. Live writes and the batches of a pass are applied under it, so a batch read
+    // before a write can't be applied after it.
+    private final Object lock = new Object();
+    // Ids held by the indexes, to find products deleted behind our back; ids above Integer.MAX_VALUE aren't tracked
+    private final BitSet indexedIds = new BitSet();
+    // Ids written while a pass runs; the pass' copy of those rows may be older than what is indexed
+    private final Set<Long> writtenDuringPass = new HashSet<>();
+    private boolean passRunning;
+    private volatile boolean loaded;
+
+    public ProductIndexSync(ProductRepository productRepository,
+                            List<ProductIndex> productIndexes,
+                            StringRedisTemplate stringRedisTemplate) {
+        this.productRepository = productRepository;
+        this.productIndexes = productIndexes;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // A product was created or updated on this node
+    public void productChanged(Product product) {
+        apply(product.getId(), product);
+        publish(UPDATED, product.getId());
+    }
+
+    // A product was deleted on this node
+    public void productRemoved(Long productId) {
+        apply(productId, null);
+        publish(DELETED, productId);
+    }
+
+    // A category was renamed on this node; its products are indexed again so the indexes see the new title
+    public void categoryChanged(Long categoryId) {
+        reindexCategory(categoryId);
+        publish(CATEGORY_CHANGED, categoryId);
+    }
+
+    // Message format: "<node id> <U|D> <product id>" or "<node id> C <category id>". A change carries only the id;
+    // the rows are read from the database, so a late message can't bring back an older version.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Long id = Long.valueOf(parts[2]);
+        try {
+            if (CATEGORY_CHANGED.equals(parts[1])) {
+                reindexCategory(id);
+            } else {
+                apply(id, UPDATED.equals(parts[1]) ? productRepository.findById(id).orElse(null) : null);
+            }
+        } catch (RuntimeException e) {
+            // the next reconcile pass picks the change up
+            logger.warn("Could not apply index change {} {}", parts[1], id, e);
+        }
+    }
+
+    public void loadIndexes() {
+        runPass("Indexed");
+    }
+
+    // Catches up with changes whose announcement never arrived
+    @Scheduled(fixedDelayString = "${search.index.reconcile-interval:PT10M}",
+            initialDelayString = "${search.index.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (loaded) {
+            runPass("Reconciled");
+        }
+    }
+
+    private void runPass(String action) {
+        synchronized (lock) {
+            if (passRunning) {
+                return;
+            }
+            passRunning = true;
+            writtenDuringPass.clear();
+            for (ProductIndex productIndex : productIndexes) {
+                productIndex.loadStarted();
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            long indexed = 0;
+            long afterId = 0;
+            List<Product> batch;
+            // Keyset batches: WHERE id > last id ORDER BY id LIMIT n costs the same on the last batch as on the first
+            do {
+                batch = productRepository.findBatchAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+                long lastId = batch.size() < BATCH_SIZE ? Long.MAX_VALUE : batch.get(batch.size() - 1).getId();
+                applyBatch(batch, afterId, lastId);
+                indexed += batch.size();
+                afterId = lastId;
+            } while (batch.size() == BATCH_SIZE);
+            for (ProductIndex productIndex : productIndexes) {
+                productIndex.loaded();
+            }
+            loaded = true;
+            logger.info("{} {} products into {} indexes in {} ms", action, indexed, productIndexes.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            synchronized (lock) {
+                passRunning = false;
+                writtenDuringPass.clear();
+            }
+        }
+    }
+
+    private void reindexCategory(Long categoryId) {
+        long afterId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findCategoryBatchAfter(categoryId, afterId, PageRequest.of(0, BATCH_SIZE));
+            for (Product product : batch) {
+                apply(product.getId(), product);
+                afterId = product.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    // Indexes the rows of the id range (afterId, lastId] and drops indexed ids of that range the table no longer has
+    private void applyBatch(List<Product> batch, long afterId, long lastId) {
+        synchronized (lock) {
+            Set<Long> batchIds = new HashSet<>();
+            List<Product> products = new ArrayList<>(batch.size());
+            for (Product product : batch) {
+                batchIds.add(product.getId());
+                if (!writtenDuringPass.contains(product.getId())) {
+                    products.add(product);
+                }
+            }
+            for (Long productId : indexedIdsBetween(afterId, lastId)) {
+                if (!batchIds.contains(productId) && !writtenDuringPass.contains(productId)) {
+                    removeFromIndexes(productId);
+                }
+            }
+            for (ProductIndex productIndex : productIndexes) {
+                productIndex.indexAll(products);
+            }
+            for (Product product : products) {
+                track(product.getId(), true);
+            }
+        }
+    }
+
+    // product == null means the product no longer exists
+    private void apply(Long productId, Product product) {
+        synchronized (lock) {
+            if (passRunning) {
+                writtenDuringPass.add(productId);
+            }
+            if (product == null) {
+                removeFromIndexes(productId);
+            } else {
+                for (ProductIndex productIndex : productIndexes) {
+                    productIndex.index(product);
+                }
+                track(productId, true);
+            }
+        }
+    }
+
+    private void removeFromIndexes(Long productId) {
+        for (ProductIndex productIndex : productIndexes) {
+            productIndex.remove(productId);
+        }
+        track(productId, false);
+    }
+
+    private void publish(String change, Long productId) {
+        stringRedisTemplate.convertAndSend(CHANGES_CHANNEL, nodeId + " " + change + " " + productId);
+    }
+
+    private List<Long> indexedIdsBetween(long afterId, long lastId) {
+        List<Long> productIds = new ArrayList<>();
+        if (afterId >= Integer.MAX_VALUE) {
+            return productIds;
+        }
+        for (int id = indexedIds.nextSetBit((int) afterId + 1); id >= 0 && id <= lastId; id = indexedIds.nextSetBit(id + 1)) {
+            productIds.add((long) id);
+            if (id == Integer.MAX_VALUE) {
+                break;
+            }
+        }
+        return productIds;
+    }
+
+    private void track(Long productId, boolean indexed) {
+        if (productId > 0 && productId <= Integer.MAX_VALUE) {
+            indexedIds.set(productId.intValue(), indexed);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// BM25 term statistics over title and description (title matches count double), kept up to date
+// on every write so ranking a query never re-tokenizes the catalog
+@Component
+public class RelevanceIndex implements ProductIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    // termFrequencies: term -> {occurrences in title, occurrences in description}
+    private record Document(int titleLength, int descriptionLength, Map<String, int[]> termFrequencies) {}
+
+    // A term's postings ordered by its score contribution, highest first. Only valid for the index
+    // version it was built at, since document counts and average lengths move with every write.
+    private record Impacts(long version, long[] ids, double[] scores) {}
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Impacts> impacts = new ConcurrentHashMap<>();
+    private volatile long version;
+    private volatile long totalTitleLength;
+    private volatile long totalDescriptionLength;
+
+    @Override
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+        List<String> titleTokens = Tokenizer.tokenize(product.getTitle());
+        List<String> descriptionTokens = Tokenizer.tokenize(product.getDescription());
+        Map<String, int[]> termFrequencies = new HashMap<>();
+        for (String token : titleTokens) {
+            termFrequencies.computeIfAbsent(token, t -> new int[2])[0]++;
+        }
+        for (String token : descriptionTokens) {
+            termFrequencies.computeIfAbsent(token, t -> new int[2])[1]++;
+        }
+        for (String term : termFrequencies.keySet()) {
+            postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+        documents.put(product.getId(), new Document(titleTokens.size(), descriptionTokens.size(), termFrequencies));
+        totalTitleLength += titleTokens.size();
+        totalDescriptionLength += descriptionTokens.size();
+        changed();
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Document document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.termFrequencies().keySet()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalTitleLength -= document.titleLength();
+        totalDescriptionLength -= document.descriptionLength();
+        changed();
+    }
+
+    // The first `limit` candidates by descending BM25 score for the query; candidates that match no
+    // query term, and ties, keep their input order
+    public List<Product> rank(String query, List<Product> candidates, int limit) {
+        limit = Math.min(limit, candidates.size());
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (terms.isEmpty()) {
+            return new ArrayList<>(candidates.subList(0, limit));
+        }
+
+        long postingsLength = 0;
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            postingsLength += ids == null ? 0 : ids.size();
+        }
+        // Walking the postings only pays off when they are shorter than scoring every candidate
+        if ((long) candidates.size() * terms.size() <= postingsLength) {
+            return rankByScoringAll(terms, candidates, limit);
+        }
+        return rankByThreshold(terms, candidates, limit);
+    }
+
+    List<Product> rankByScoringAll(List<String> terms, List<Product> candidates, int limit) {
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = score(terms, candidates.get(i).getId());
+        }
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(limit, (a, b) -> compare(b, scores[b], a, scores[a]));
+        for (int position = 0; position < scores.length; position++) {
+            worstFirst.add(position);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+        return drain(worstFirst, candidates, limit);
+    }
+
+    // Fagin's threshold algorithm: read the impact-ordered postings of all query terms in lockstep and stop
+    // once the k-th best score beats the best score any document not seen yet could still reach
+    List<Product> rankByThreshold(List<String> terms, List<Product> candidates, int limit) {
+        Map<Long, Integer> positions = new HashMap<>(candidates.size() * 2);
+        for (int i = 0; i < candidates.size(); i++) {
+            positions.putIfAbsent(candidates.get(i).getId(), i);
+        }
+        List<Impacts> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            lists.add(impacts(term));
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(limit, (a, b) -> compare(b, scores.get(b), a, scores.get(a)));
+        for (int depth = 0; ; depth++) {
+            boolean exhausted = true;
+            double threshold = 0;
+            for (Impacts list : lists) {
+                if (depth >= list.ids().length) {
+                    continue;
+                }
+                exhausted = false;
+                threshold += list.scores()[depth];
+                Integer position = positions.get(list.ids()[depth]);
+                if (position == null || scores.containsKey(position)) {
+                    continue;
+                }
+                scores.put(position, score(terms, list.ids()[depth]));
+                worstFirst.add(position);
+                if (worstFirst.size() > limit) {
+                    worstFirst.poll();
+                }
+            }
+            if (exhausted || (worstFirst.size() == limit && scores.get(worstFirst.peek()) > threshold)) {
+                break;
+            }
+        }
+
+        List<Product> ranked = drain(worstFirst, candidates, limit);
+        // Fewer matches than requested: pad with the candidates that match no query term
+        for (int i = 0; i < candidates.size() && ranked.size() < limit; i++) {
+            if (!scores.containsKey(i)) {
+                ranked.add(candidates.get(i));
+            }
+        }
+        return ranked;
+    }
+
+    private List<Product> drain(PriorityQueue<Integer> worstFirst, List<Product> candidates, int limit) {
+        Product[] ranked = new Product[worstFirst.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = candidates.get(worstFirst.poll());
+        }
+        List<Product> products = new ArrayList<>(limit);
+        products.addAll(Arrays.asList(ranked));
+        return products;
+    }
+
+    private Impacts impacts(String term) {
+        long currentVersion = version;
+        Impacts cached = impacts.get(term);
+        if (cached != null && cached.version() == currentVersion) {
+            return cached;
+        }
+        Set<Long> ids = postings.getOrDefault(term, Set.of());
+        Map<Long, Double> termScores = new HashMap<>(ids.size() * 2);
+        for (Long id : ids) {
+            termScores.put(id, termScore(term, id));
+        }
+        long[] sortedIds = termScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        double[] sortedScores = new double[sortedIds.length];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedScores[i] = termScores.get(sortedIds[i]);
+        }
+        Impacts built = new Impacts(currentVersion, sortedIds, sortedScores);
+        impacts.put(term, built);
+        return built;
+    }
+
+    private double score(List<String> terms, long productId) {
+        double score = 0;
+        for (String term : terms) {
+            score += termScore(term, productId);
+        }
+        return score;
+    }
+
+    // BM25F: field frequencies are length-normalized and weighted before the usual k1 saturation
+    private double termScore(String term, long productId) {
+        Document document = documents.get(productId);
+        Set<Long> ids = postings.get(term);
+        if (document == null || ids == null) {
+            return 0;
+        }
+        int[] frequencies = document.termFrequencies().get(term);
+        if (frequencies == null) {
+            return 0;
+        }
+        int documentCount = Math.max(documents.size(), 1);
+        double averageTitleLength = Math.max((double) totalTitleLength / documentCount, 1);
+        double averageDescriptionLength = Math.max((double) totalDescriptionLength / documentCount, 1);
+        double frequency = TITLE_WEIGHT * frequencies[0] / (1 - B + B * document.titleLength() / averageTitleLength)
+                + DESCRIPTION_WEIGHT * frequencies[1] / (1 - B + B * document.descriptionLength() / averageDescriptionLength);
+        double idf = Math.log(1 + (documentCount - ids.size() + 0.5) / (ids.size() + 0.5));
+        return idf * frequency * (K1 + 1) / (frequency + K1);
+    }
+
+    // Higher score first, then earlier input position
+    private static int compare(int positionA, double scoreA, int positionB, double scoreB) {
+        int compare = Double.compare(scoreB, scoreA);
+        return compare != 0 ? compare : Integer.compare(positionA, positionB);
+    }
+
+    private void changed() {
+        version++;
+        impacts.clear();
+    }
+}
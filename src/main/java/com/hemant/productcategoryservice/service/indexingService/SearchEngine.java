@@ -0,0 +1,16 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface SearchEngine extends ProductIndex {
+    List<Product> search(String query);
+
+    // Products for ids produced by another index, in the given order
+    List<Product> findAllById(long[] ids);
+
+    // Text match as a database predicate, or null when it is cheaper to search in memory
+    Specification<Product> toSpecification(String query);
+}
@@ -0,0 +1,118 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.ProductAccessRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Typeahead over product and category titles, ranked by popularity. A product title weighs 1 plus the reads
+// of every product carrying it (counted by ProductAccessRecorder), so unread products still show up but
+// the ones people open rank first. A category title weighs 1 plus the average reads of its products:
+// a category competes with its typical product, not with the sum of all of them.
+@Component
+public class SuggestionIndex implements ProductIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private record Entry(String title, String categoryTitle, long reads) {}
+
+    private static class CategoryStats {
+        long products;
+        long reads;
+        // what this category currently contributes to its title's weight in the trie
+        long weight;
+    }
+
+    private final ProductAccessRecorder productAccessRecorder;
+    // Everything below is guarded by this
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, CategoryStats> categories = new HashMap<>();
+    private Map<Long, Long> readCounts = new HashMap<>();
+
+    public SuggestionIndex(ProductAccessRecorder productAccessRecorder) {
+        this.productAccessRecorder = productAccessRecorder;
+    }
+
+    @Override
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+        String categoryTitle = product.getCategory() == null ? null : product.getCategory().getTitle();
+        Entry entry = new Entry(product.getTitle(), categoryTitle, readCounts.getOrDefault(product.getId(), 0L));
+        trie.addWeight(entry.title(), 1 + entry.reads());
+        addToCategory(entry.categoryTitle(), 1, entry.reads());
+        entries.put(product.getId(), entry);
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry != null) {
+            trie.addWeight(entry.title(), -(1 + entry.reads()));
+            addToCategory(entry.categoryTitle(), -1, -entry.reads());
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS));
+    }
+
+    // Moves the weights to the latest read counts; only products whose count changed touch the trie
+    @Scheduled(fixedDelayString = "${search.suggest.popularity-refresh-interval:PT1M}")
+    public void refreshPopularity() {
+        Map<Long, Long> latest;
+        try {
+            latest = productAccessRecorder.readCounts();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read product popularity, keeping the current suggestion weights", e);
+            return;
+        }
+        applyReadCounts(latest);
+    }
+
+    synchronized void applyReadCounts(Map<Long, Long> latest) {
+        Set<Long> changed = new HashSet<>(readCounts.keySet());
+        changed.addAll(latest.keySet());
+        readCounts = latest;
+        for (Long productId : changed) {
+            Entry entry = entries.get(productId);
+            long reads = latest.getOrDefault(productId, 0L);
+            if (entry == null || entry.reads() == reads) {
+                continue;
+            }
+            trie.addWeight(entry.title(), reads - entry.reads());
+            addToCategory(entry.categoryTitle(), 0, reads - entry.reads());
+            entries.put(productId, new Entry(entry.title(), entry.categoryTitle(), reads));
+        }
+    }
+
+    private void addToCategory(String categoryTitle, long products, long reads) {
+        if (categoryTitle == null || categoryTitle.isBlank()) {
+            return;
+        }
+        // same normalization as the trie, so titles differing only in case share one weight
+        String key = categoryTitle.trim().toLowerCase(Locale.ROOT);
+        CategoryStats stats = categories.computeIfAbsent(key, title -> new CategoryStats());
+        stats.products += products;
+        stats.reads += reads;
+        long weight = stats.products <= 0 ? 0 : 1 + stats.reads / stats.products;
+        trie.addWeight(categoryTitle, weight - stats.weight);
+        stats.weight = weight;
+        if (stats.products <= 0) {
+            categories.remove(key);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Radix (path-compressed) trie of weighted phrases. Every node keeps its best completions precomputed,
+// so a lookup is a walk down the prefix and a copy of at most MAX_SUGGESTIONS entries.
+public class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static class Node {
+        String label = "";
+        final Map<Character, Node> children = new HashMap<>();
+        // set when a phrase ends here
+        String phrase;
+        long weight;
+        List<SuggestionDto> top = List.of();
+    }
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Adds delta to the phrase's weight; the phrase disappears when its weight drops to zero
+    public void addWeight(String phrase, long delta) {
+        String key = normalize(phrase);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = insertPath(key, path);
+            if (node.phrase == null) {
+                node.phrase = phrase.trim();
+            }
+            node.weight += delta;
+            if (node.weight <= 0) {
+                node.phrase = null;
+                node.weight = 0;
+            }
+            // recompute cached completions bottom-up along the touched path, pruning nodes left empty
+            // and merging pass-through nodes back into their only child to keep the trie compressed
+            Node child = node;
+            recomputeTop(child);
+            while (!path.isEmpty()) {
+                Node parent = path.pop();
+                if (child.phrase == null && child.children.isEmpty()) {
+                    parent.children.remove(child.label.charAt(0));
+                } else if (child.phrase == null && child.children.size() == 1) {
+                    Node onlyChild = child.children.values().iterator().next();
+                    onlyChild.label = child.label + onlyChild.label;
+                    parent.children.put(onlyChild.label.charAt(0), onlyChild);
+                }
+                recomputeTop(parent);
+                child = parent;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null) {
+                    return new ArrayList<>();
+                }
+                int matched = commonPrefixLength(child.label, key, position);
+                if (position + matched == key.length()) {
+                    // prefix ends inside or at the end of this edge, everything below matches
+                    node = child;
+                    break;
+                }
+                if (matched < child.label.length()) {
+                    return new ArrayList<>();
+                }
+                position += matched;
+                node = child;
+            }
+            List<SuggestionDto> top = node.top;
+            return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks (and splits edges as needed) down to the node for key, pushing every node passed onto path
+    private Node insertPath(String key, Deque<Node> path) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            path.push(node);
+            Node child = node.children.get(key.charAt(position));
+            if (child == null) {
+                child = new Node();
+                child.label = key.substring(position);
+                node.children.put(child.label.charAt(0), child);
+                node = child;
+                break;
+            }
+            int matched = commonPrefixLength(child.label, key, position);
+            if (matched < child.label.length()) {
+                // split the edge at the point where key diverges
+                Node middle = new Node();
+                middle.label = child.label.substring(0, matched);
+                child.label = child.label.substring(matched);
+                middle.children.put(child.label.charAt(0), child);
+                middle.top = child.top;
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            position += matched;
+            node = child;
+        }
+        return node;
+    }
+
+    private void recomputeTop(Node node) {
+        PriorityQueue<SuggestionDto> best = new PriorityQueue<>(Comparator.comparingLong(SuggestionDto::getWeight));
+        if (node.phrase != null) {
+            offer(best, node.phrase, node.weight);
+        }
+        for (Node child : node.children.values()) {
+            for (SuggestionDto suggestion : child.top) {
+                offer(best, suggestion.getText(), suggestion.getWeight());
+            }
+        }
+        List<SuggestionDto> top = new ArrayList<>(best);
+        top.sort(Comparator.comparingLong(SuggestionDto::getWeight).reversed().thenComparing(SuggestionDto::getText));
+        node.top = List.copyOf(top);
+    }
+
+    private static void offer(PriorityQueue<SuggestionDto> best, String phrase, long weight) {
+        if (best.size() < MAX_SUGGESTIONS) {
+            best.add(new SuggestionDto(phrase, weight));
+        } else if (best.peek().getWeight() < weight) {
+            best.poll();
+            best.add(new SuggestionDto(phrase, weight));
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
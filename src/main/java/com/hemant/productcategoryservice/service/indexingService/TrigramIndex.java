@@ -0,0 +1,205 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Typo-tolerant title matching. Title terms are indexed by their character trigrams; a query term
+// only gets an edit-distance check against terms sharing enough trigrams with it.
+@Component
+public class TrigramIndex implements ProductIndex {
+
+    // Trigrams shared by more terms than this say little about a match and are skipped
+    private static final int MAX_TERMS_PER_TRIGRAM = 5000;
+    // Candidate terms verified per query term, best trigram overlap first
+    private static final int MAX_VERIFIED_TERMS = 500;
+    // Corrections kept per query term
+    private static final int MAX_EXPANSIONS = 50;
+
+    // trigram -> title terms containing it
+    private final Map<String, Set<String>> termsByTrigram = new ConcurrentHashMap<>();
+    // title term -> ids of products with the term in their title
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> termsByProduct = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        remove(product.getId());
+        Set<String> terms = new HashSet<>(Tokenizer.tokenize(product.getTitle()));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> {
+                for (String trigram : trigrams(t)) {
+                    termsByTrigram.computeIfAbsent(trigram, g -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(product.getId());
+        }
+        termsByProduct.put(product.getId(), terms);
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(productId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> gramTerms = termsByTrigram.get(trigram);
+                    if (gramTerms != null) {
+                        gramTerms.remove(term);
+                        if (gramTerms.isEmpty()) {
+                            termsByTrigram.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Ids of products whose title has, for every query term, a term within a small edit distance of it
+    public long[] search(String query) {
+        Set<Long> matches = null;
+        for (String token : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+            Set<Long> ids = new HashSet<>();
+            for (String term : expand(token)) {
+                Set<Long> termIds = postings.get(term);
+                if (termIds != null) {
+                    ids.addAll(termIds);
+                }
+            }
+            if (matches == null) {
+                matches = ids;
+            } else {
+                matches.retainAll(ids);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches == null ? new long[0] : matches.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Indexed terms within maxDistance(token) edits of token
+    private List<String> expand(String token) {
+        int maxDistance = maxDistance(token);
+        List<String> expansions = new ArrayList<>();
+        if (postings.containsKey(token)) {
+            expansions.add(token);
+        }
+        if (maxDistance == 0) {
+            return expansions;
+        }
+
+        // One edit changes at most three trigrams, so a term within maxDistance edits shares at least
+        // this many; trigrams skipped for being too common lower the bar accordingly
+        List<String> queryTrigrams = trigrams(token);
+        Map<String, Integer> overlap = new HashMap<>();
+        int skipped = 0;
+        for (String trigram : queryTrigrams) {
+            Set<String> terms = termsByTrigram.get(trigram);
+            if (terms == null) {
+                continue;
+            }
+            if (terms.size() > MAX_TERMS_PER_TRIGRAM) {
+                skipped++;
+                continue;
+            }
+            for (String term : terms) {
+                if (Math.abs(term.length() - token.length()) <= maxDistance) {
+                    overlap.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        int minOverlap = Math.max(1, queryTrigrams.size() - 3 * maxDistance - skipped);
+
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : overlap.entrySet()) {
+            if (candidate.getValue() >= minOverlap && !candidate.getKey().equals(token)) {
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        int verified = 0;
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            if (verified++ == MAX_VERIFIED_TERMS || expansions.size() == MAX_EXPANSIONS) {
+                break;
+            }
+            if (withinDistance(token, candidate.getKey(), maxDistance)) {
+                expansions.add(candidate.getKey());
+            }
+        }
+        return expansions;
+    }
+
+    // Short terms must match exactly, longer ones tolerate one or two typos
+    private static int maxDistance(String token) {
+        if (token.length() < 3) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    // Trigrams of the term padded so that its first and last characters weigh as much as the middle ones
+    private static List<String> trigrams(String term) {
+        String padded = "$$" + term + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Levenshtein distance <= maxDistance, only filling the diagonal band and giving up as soon as
+    // every cell of a row is over the bound
+    private static boolean withinDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return false;
+        }
+        int outOfBand = maxDistance + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = Math.min(j, outOfBand);
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(b.length(), i + maxDistance);
+            current[0] = Math.min(i, outOfBand);
+            if (from > 1) {
+                current[from - 1] = outOfBand;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                current[j] = Math.min(outOfBand, Math.min(substitution, Math.min(deletion, insertion)));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = outOfBand;
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxDistance;
+    }
+}
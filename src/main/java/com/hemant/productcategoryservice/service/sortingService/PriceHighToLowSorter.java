@@ -12,4 +12,9 @@ public class PriceHighToLowSorter implements Sorter {
                 .sorted((p1, p2) -> Double.compare(p2.getPrice(), p1.getPrice()))
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<Product> sortRange(List<Product> products, int from, int to) {
+        return TopKSelector.selectRange(products, TopKSelector.prices(products, true), from, to);
+    }
 }
@@ -14,4 +14,9 @@ public class PriceLowToHighSorter implements Sorter {
                 .sorted(Comparator.comparingDouble(Product::getPrice))
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<Product> sortRange(List<Product> products, int from, int to) {
+        return TopKSelector.selectRange(products, TopKSelector.prices(products, false), from, to);
+    }
 }
@@ -0,0 +1,30 @@
+package com.hemant.productcategoryservice.service.sortingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.indexingService.RelevanceIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Best BM25 matches for the query first
+public class RelevanceSorter implements Sorter {
+
+    private final RelevanceIndex relevanceIndex;
+    private final String query;
+
+    public RelevanceSorter(RelevanceIndex relevanceIndex, String query) {
+        this.relevanceIndex = relevanceIndex;
+        this.query = query;
+    }
+
+    @Override
+    public List<Product> sort(List<Product> products) {
+        return relevanceIndex.rank(query, products, products.size());
+    }
+
+    @Override
+    public List<Product> sortRange(List<Product> products, int from, int to) {
+        List<Product> ranked = relevanceIndex.rank(query, products, to);
+        return new ArrayList<>(ranked.subList(Math.min(from, ranked.size()), ranked.size()));
+    }
+}
@@ -6,4 +6,7 @@ import java.util.List;
 
 public interface Sorter {
     List<Product> sort(List<Product> products);
+
+    // Same as sort(products).subList(from, to) but only orders the first `to` products
+    List<Product> sortRange(List<Product> products, int from, int to);
 }
@@ -1,13 +1,25 @@
 package com.hemant.productcategoryservice.service.sortingService;
 
 import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.service.indexingService.RelevanceIndex;
 
 public class SorterFactory {
 
     public static Sorter getSortedByValue(SortingCriteria sortingCriteria) {
+        return getSortedByValue(sortingCriteria, null, null);
+    }
+
+    // RELEVANCE ranks against the query, the other criteria ignore it
+    public static Sorter getSortedByValue(SortingCriteria sortingCriteria, String query, RelevanceIndex relevanceIndex) {
         return switch (sortingCriteria) {
             case PRICE_LOW_TO_HIGH -> new PriceLowToHighSorter();
             case PRICE_HIGH_TO_LOW -> new PriceHighToLowSorter();
+            case RELEVANCE -> {
+                if (relevanceIndex == null) {
+                    throw new IllegalArgumentException("Relevance sorting needs the query's term statistics");
+                }
+                yield new RelevanceSorter(relevanceIndex, query);
+            }
         };
     }
 }
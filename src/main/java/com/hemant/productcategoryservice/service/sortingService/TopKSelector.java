@@ -0,0 +1,86 @@
+package com.hemant.productcategoryservice.service.sortingService;
+
+import com.hemant.productcategoryservice.models.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Picks positions [from, to) of the ascending order of keys with a bounded max-heap of size `to`,
+// so a page costs O(n log k) instead of a full sort. Equal keys keep their input order like a stable sort.
+public class TopKSelector {
+
+    public static List<Product> selectRange(List<Product> products, double[] keys, int from, int to) {
+        int k = Math.min(to, products.size());
+        if (from >= k) {
+            return new ArrayList<>();
+        }
+        int[] heap = new int[k];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, keys);
+            } else if (before(i, heap[0], keys)) {
+                heap[0] = i;
+                siftDown(heap, 0, size, keys);
+            }
+        }
+
+        // Drain the heap from the back: the root is always the last of the k smallest
+        int[] ordered = new int[size];
+        for (int last = size - 1; last >= 0; last--) {
+            ordered[last] = heap[0];
+            heap[0] = heap[last];
+            siftDown(heap, 0, last, keys);
+        }
+        List<Product> range = new ArrayList<>(size - from);
+        for (int i = from; i < size; i++) {
+            range.add(products.get(ordered[i]));
+        }
+        return range;
+    }
+
+    public static double[] prices(List<Product> products, boolean descending) {
+        double[] keys = new double[products.size()];
+        for (int i = 0; i < keys.length; i++) {
+            double price = products.get(i).getPrice();
+            keys[i] = descending ? -price : price;
+        }
+        return keys;
+    }
+
+    private static boolean before(int a, int b, double[] keys) {
+        int compare = Double.compare(keys[a], keys[b]);
+        return compare < 0 || (compare == 0 && a < b);
+    }
+
+    private static void siftUp(int[] heap, int position, double[] keys) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(heap[parent], item, keys)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int position, int size, double[] keys) {
+        int item = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && before(heap[child], heap[child + 1], keys)) {
+                child++;
+            }
+            if (!before(item, heap[child], keys)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = item;
+    }
+}
@@ -0,0 +1,187 @@
+package com.hemant.productcategoryservice.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// EXPLAIN and timings of the /search/byCategory queries for every sortingAttribute, against a seeded copy of the
+// products table. Not a unit test: run main on the test classpath against a MySQL 8 server, e.g.
+//   docker run -d -p 3306:3306 -e MYSQL_ROOT_PASSWORD=root mysql:8
+//   java -cp ... CategorySortExplainBenchmark jdbc:mysql://localhost:3306 root root 1000000
+// It works in its own productservice_explain database (dropped and recreated), never in the service's one.
+// The seed is fixed, so runs on the same server are comparable.
+public class CategorySortExplainBenchmark {
+
+    private static final String DATABASE = "productservice_explain";
+    private static final int CATEGORIES = 50;
+    private static final int INSERT_BATCH = 5_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_OFFSET = 10_000;
+    private static final int MEASURED_RUNS = 5;
+    private static final String[] SORT_COLUMNS = {"id", "price", "title", "created_at"};
+
+    public static void main(String[] args) throws SQLException {
+        String serverUrl = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306";
+        String user = args.length > 1 ? args[1] : "root";
+        String password = args.length > 2 ? args[2] : "root";
+        int products = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+
+        try (Connection connection = DriverManager.getConnection(serverUrl + "/?rewriteBatchedStatements=true", user, password)) {
+            createSchema(connection);
+            seed(connection, products);
+            long categoryId = CATEGORIES / 2;
+            for (String column : SORT_COLUMNS) {
+                for (String direction : new String[] {"asc", "desc"}) {
+                    System.out.printf("sortingAttribute=%s,%s%n", property(column), direction);
+                    String orderBy = column.equals("id")
+                            ? " order by p.id " + direction
+                            : " order by p." + column + " " + direction + ", p.id " + direction;
+                    // The same statements Hibernate issues for /search/byCategory (offset) and /search/byCategory/cursor
+                    String browse = "select p.* from products p where p.title like ? escape '\\\\' and p.category_id = ?" + orderBy;
+                    run(connection, "first page", browse + " limit " + PAGE_SIZE, "%%", categoryId);
+                    run(connection, "offset " + DEEP_OFFSET, browse + " limit " + PAGE_SIZE + " offset " + DEEP_OFFSET, "%%", categoryId);
+                    run(connection, "keyset after offset " + DEEP_OFFSET, keysetQuery(column, direction, orderBy),
+                            keysetArguments(connection, column, orderBy, categoryId));
+                    run(connection, "title contains 'steel'", browse + " limit " + PAGE_SIZE, "%steel%", categoryId);
+                    System.out.println();
+                }
+            }
+        }
+    }
+
+    // Same columns and indexes as the Product entity
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop database if exists " + DATABASE);
+            statement.execute("create database " + DATABASE);
+            statement.execute("use " + DATABASE);
+            statement.execute("create table categories (id bigint not null auto_increment, created_at datetime(6), "
+                    + "last_modified_at datetime(6), title varchar(255), primary key (id))");
+            statement.execute("create table products (id bigint not null auto_increment, created_at datetime(6), "
+                    + "last_modified_at datetime(6), description varchar(255), img_url varchar(255), price float(53), "
+                    + "quantity integer, title varchar(255), category_id bigint, primary key (id), "
+                    + "index idx_products_price (price), "
+                    + "index idx_products_category_price (category_id, price), "
+                    + "index idx_products_category_title (category_id, title), "
+                    + "index idx_products_category_created_at (category_id, created_at), "
+                    + "foreign key (category_id) references categories (id))");
+        }
+    }
+
+    private static void seed(Connection connection, int products) throws SQLException {
+        String[] words = {"wireless", "portable", "premium", "steel", "cotton", "durable", "compact", "smart",
+                "battery", "warranty", "lightweight", "water", "resistant", "classic", "modern", "edition"};
+        Random random = new Random(42);
+        long start = System.currentTimeMillis();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into categories (title, created_at) values (?, ?)")) {
+            for (int i = 1; i <= CATEGORIES; i++) {
+                insert.setString(1, "Category " + i);
+                insert.setTimestamp(2, new Timestamp(1_700_000_000_000L + i));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into products "
+                + "(title, price, description, img_url, quantity, created_at, last_modified_at, category_id) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= products; i++) {
+                // Prices and timestamps repeat, so the id tie-breaker matters
+                Timestamp createdAt = new Timestamp(1_700_000_000_000L + random.nextInt(products) * 1000L);
+                insert.setString(1, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i);
+                insert.setDouble(2, random.nextInt(10_000) / 100.0);
+                insert.setString(3, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]);
+                insert.setString(4, "https://cdn.example.com/products/" + i + ".jpg");
+                insert.setInt(5, random.nextInt(500));
+                insert.setTimestamp(6, createdAt);
+                insert.setTimestamp(7, createdAt);
+                insert.setLong(8, 1 + random.nextInt(CATEGORIES));
+                insert.addBatch();
+                if (i % INSERT_BATCH == 0 || i == products) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze table categories, products");
+        }
+        System.out.printf("Seeded %d products in %d categories in %d ms%n%n", products, CATEGORIES, System.currentTimeMillis() - start);
+    }
+
+    // WHERE (field, id) is past the last row of the previous page, spelled out the way Spring Data's keyset scrolling does
+    private static String keysetQuery(String column, String direction, String orderBy) {
+        String after = direction.equals("asc") ? ">" : "<";
+        String seek = column.equals("id")
+                ? "p.id " + after + " ?"
+                : "(p." + column + " " + after + " ? or (p." + column + " = ? and p.id " + after + " ?))";
+        return "select p.* from products p where p.title like ? escape '\\\\' and p.category_id = ? and " + seek
+                + orderBy + " limit " + (PAGE_SIZE + 1);
+    }
+
+    // The sort key of the row a client would hold the cursor of after DEEP_OFFSET rows
+    private static Object[] keysetArguments(Connection connection, String column, String orderBy, long categoryId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select p." + column + ", p.id from products p "
+                + "where p.category_id = ?" + orderBy + " limit 1 offset " + (DEEP_OFFSET - 1))) {
+            statement.setLong(1, categoryId);
+            try (ResultSet row = statement.executeQuery()) {
+                if (!row.next()) {
+                    throw new IllegalStateException("Category " + categoryId + " has fewer than " + DEEP_OFFSET + " products, seed more");
+                }
+                if (column.equals("id")) {
+                    return new Object[] {"%%", categoryId, row.getLong(2)};
+                }
+                return new Object[] {"%%", categoryId, row.getObject(1), row.getObject(1), row.getLong(2)};
+            }
+        }
+    }
+
+    private static void run(Connection connection, String name, String sql, Object... arguments) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            bind(explain, arguments);
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.add("key=" + rows.getString("key") + " rows=" + rows.getString("rows") + " extra=" + rows.getString("Extra"));
+                }
+            }
+        }
+        long[] millis = new long[MEASURED_RUNS];
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            bind(query, arguments);
+            // one untimed run to load the pages into the buffer pool
+            for (int run = -1; run < MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        // drain the page
+                    }
+                }
+                if (run >= 0) {
+                    millis[run] = (System.nanoTime() - start) / 1_000_000;
+                }
+            }
+        }
+        Arrays.sort(millis);
+        System.out.printf("  %-26s median %5d ms  %s%n", name, millis[MEASURED_RUNS / 2], String.join(" | ", plan));
+    }
+
+    private static void bind(PreparedStatement statement, Object[] arguments) throws SQLException {
+        for (int i = 0; i < arguments.length; i++) {
+            statement.setObject(i + 1, arguments[i]);
+        }
+    }
+
+    private static String property(String column) {
+        return column.equals("created_at") ? "createdAt" : column;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hemant.productcategoryservice.benchmarks;
+
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.ProductCacheCodec;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+// Bytes per entry and encode/decode time of the product cache codecs. Not a unit test: run main on the
+// test classpath (from the IDE, or java -cp after mvn test-compile).
+public class ProductCacheCodecBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        for (int descriptionWords : new int[] {20, 400}) {
+            List<Product> products = products(descriptionWords);
+            System.out.printf("%d products, descriptions of %d words%n", PRODUCTS, descriptionWords);
+            run("json (GenericJackson2JsonRedisSerializer)", new GenericJackson2JsonRedisSerializer(), products);
+            run("binary", new ProductCacheCodec(0), products);
+            run("binary + lz4 (>= 512 bytes)", new ProductCacheCodec(512), products);
+            System.out.println();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void run(String name, RedisSerializer<?> serializer, List<Product> products) {
+        RedisSerializer<Object> codec = (RedisSerializer<Object>) serializer;
+        byte[][] encoded = new byte[products.size()][];
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        long checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < products.size(); i++) {
+                encoded[i] = codec.serialize(products.get(i));
+            }
+            long encodedAt = System.nanoTime();
+            for (byte[] bytes : encoded) {
+                checksum += ((Product) codec.deserialize(bytes)).getId();
+            }
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                encodeNanos += encodedAt - start;
+                decodeNanos += end - encodedAt;
+            }
+        }
+        long totalBytes = 0;
+        for (byte[] bytes : encoded) {
+            totalBytes += bytes.length;
+        }
+        long operations = (long) MEASURED_ROUNDS * products.size();
+        System.out.printf("  %-42s %7.1f bytes/entry  encode %6.2f us  decode %6.2f us  (checksum %d)%n",
+                name, (double) totalBytes / products.size(),
+                encodeNanos / 1000.0 / operations, decodeNanos / 1000.0 / operations, checksum);
+    }
+
+    private static List<Product> products(int descriptionWords) {
+        String[] words = {"wireless", "portable", "premium", "steel", "cotton", "durable", "compact", "smart",
+                "battery", "warranty", "lightweight", "water", "resistant", "classic", "modern", "edition"};
+        Random random = new Random(42);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setTitle("Category " + (i + 1));
+            category.setCreatedAt(new Date(1_700_000_000_000L + i));
+            categories.add(category);
+        }
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setTitle(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i);
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < descriptionWords; w++) {
+                description.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            product.setDescription(description.toString().trim());
+            product.setPrice(Math.round(random.nextDouble() * 100_000) / 100.0);
+            product.setImgUrl("https://cdn.example.com/products/" + (i + 1) + ".jpg");
+            product.setQuantity(random.nextInt(500));
+            product.setCreatedAt(new Date(1_700_000_000_000L + i * 1000L));
+            product.setLastModifiedAt(new Date(1_700_000_000_000L + i * 2000L));
+            product.setCategory(categories.get(random.nextInt(categories.size())));
+            products.add(product);
+        }
+        return products;
+    }
+}
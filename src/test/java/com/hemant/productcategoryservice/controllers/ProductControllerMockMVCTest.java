@@ -2,14 +2,18 @@ package com.hemant.productcategoryservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hemant.productcategoryservice.dtos.InventoryUpdateProducts;
+import com.hemant.productcategoryservice.dtos.LocalCacheStatsDto;
 import com.hemant.productcategoryservice.models.Category;
 import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.ProductExportService;
 import com.hemant.productcategoryservice.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,9 +21,15 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
@@ -28,6 +38,9 @@ public class ProductControllerMockMVCTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductExportService productExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -227,4 +240,107 @@ public class ProductControllerMockMVCTest {
                         MockMvcRequestBuilders.get("/products/?page=1&size=10"))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getProductsAfter_Success() throws Exception {
+        Product product = new Product();
+        product.setId(1L);
+        product.setTitle("iPhone 16 Pro Max");
+        product.setPrice(100.0);
+        product.setDescription("iPhone 16 Pro Max");
+        product.setImgUrl("iPhone 16 Pro Max");
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setTitle("title");
+        product.setCategory(category);
+
+        Window<Product> productWindow = Window.from(List.of(product), index -> ScrollPosition.forward(Map.of("id", 1L)), true);
+
+        when(productService.getProductsAfter(null, 10)).thenReturn(productWindow);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/cursor?size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    public void getProductsAfter_Failure() throws Exception {
+        when(productService.getProductsAfter("bad", 10)).thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/products/cursor?cursor=bad&size=10"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    public void exportProducts_Success() throws Exception {
+        Category category = new Category();
+        category.setId(1L);
+        category.setTitle("Electronics");
+        Product first = new Product();
+        first.setId(1L);
+        first.setTitle("iPhone");
+        first.setCategory(category);
+        Product second = new Product();
+        second.setId(2L);
+        second.setTitle("Pixel");
+        second.setCategory(category);
+
+        when(productExportService.exportProducts(isNull(), any())).thenAnswer(invocation -> {
+            Consumer<Product> sink = invocation.getArgument(1);
+            sink.accept(first);
+            sink.accept(second);
+            return 2L;
+        });
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(ProductController.from(first)) + "\n"
+                                + objectMapper.writeValueAsString(ProductController.from(second)) + "\n"));
+    }
+
+    @Test
+    public void getLocalCacheStats_Success() throws Exception {
+        LocalCacheStatsDto stats = new LocalCacheStatsDto();
+        stats.setHits(9);
+        stats.setMisses(1);
+        stats.setHitRatio(0.9);
+        stats.setEvictions(2);
+        when(productService.getLocalCacheStats()).thenReturn(stats);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRatio").value(0.9))
+                .andExpect(jsonPath("$.evictions").value(2));
+    }
+
+    @Test
+    public void getProductsBatch_KeepsRequestOrderAndReportsMissing() throws Exception {
+        Category category = new Category();
+        category.setId(1L);
+        category.setTitle("Electronics");
+        Product first = new Product();
+        first.setId(3L);
+        first.setTitle("Phone");
+        first.setCategory(category);
+        Product second = new Product();
+        second.setId(1L);
+        second.setTitle("Laptop");
+        second.setCategory(category);
+        when(productService.getProductsById(List.of(3L, 2L, 1L))).thenReturn(Map.of(3L, first, 1L, second));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[3,2,1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(3))
+                .andExpect(jsonPath("$.products[1].id").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(2));
+    }
+}
@@ -1,8 +1,13 @@
 package com.hemant.productcategoryservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemant.productcategoryservice.dtos.CategoryFacetDto;
 import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SearchCacheStatsDto;
+import com.hemant.productcategoryservice.dtos.SearchFacetsDto;
+import com.hemant.productcategoryservice.dtos.SearchResult;
 import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
 import com.hemant.productcategoryservice.models.Category;
 import com.hemant.productcategoryservice.models.Product;
 import com.hemant.productcategoryservice.service.SearchService;
@@ -11,6 +16,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,8 +26,10 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(SearchController.class)
@@ -111,4 +120,117 @@ public class SearchControllerMockMVCTest {
                                 .param("pageNumber", "0"))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    public void simpleSearchAfter_ByCategory_Success() throws Exception {
+        when(searchService.simpleSearchAfter("test", 1L, 10, null, "price"))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/search/byCategory/cursor")
+                                .param("query", "test")
+                                .param("categoryId", "1")
+                                .param("pageSize", "10")
+                                .param("sortingAttribute", "price"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void fullSearch_WithFacets_Success() throws Exception {
+        CategoryFacetDto categoryFacet = new CategoryFacetDto();
+        categoryFacet.setCategoryId(1L);
+        categoryFacet.setTitle("Electronics");
+        categoryFacet.setCount(3);
+        SearchFacetsDto facets = new SearchFacetsDto();
+        facets.setCategories(List.of(categoryFacet));
+        facets.setPriceBuckets(List.of());
+        SearchResult searchResult = new SearchResult();
+        searchResult.setProducts(Page.empty());
+        searchResult.setFacets(facets);
+
+        when(searchService.searchWithFacets(any(), any(), any(), anyInt(), anyInt(), any(), anyBoolean()))
+                .thenReturn(searchResult);
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/search/")
+                                .param("query", "test")
+                                .param("filters", "[]")
+                                .param("sortBy", SortingCriteria.PRICE_LOW_TO_HIGH.name())
+                                .param("pageSize", "10")
+                                .param("pageNumber", "1")
+                                .param("facets", "true")
+                                .param("priceBuckets", "0,100,500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.categories[0].count").value(3));
+    }
+
+    @Test
+    public void fullSearch_Fuzzy_Success() throws Exception {
+        Product product = new Product();
+        product.setId(1L);
+        product.setTitle("iPhone 15");
+        product.setPrice(100.0);
+        Category category = new Category();
+        category.setId(1L);
+        category.setTitle("Electronics");
+        product.setCategory(category);
+
+        when(searchService.fuzzySearch(any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/search/")
+                                .param("query", "iphnoe")
+                                .param("filters", "[]")
+                                .param("sortBy", SortingCriteria.PRICE_LOW_TO_HIGH.name())
+                                .param("pageSize", "10")
+                                .param("pageNumber", "1")
+                                .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.content[0].title").value("iPhone 15"));
+    }
+
+    @Test
+    public void fullSearch_SortedByRelevance_Success() throws Exception {
+        when(searchService.search("phone", List.of(), SortingCriteria.RELEVANCE, 10, 1))
+                .thenReturn(Page.empty());
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/search/")
+                                .param("query", "phone")
+                                .param("filters", "[]")
+                                .param("sortBy", SortingCriteria.RELEVANCE.name())
+                                .param("pageSize", "10")
+                                .param("pageNumber", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void suggest_ByPrefix_Success() throws Exception {
+        when(searchService.suggest("iph", 5))
+                .thenReturn(List.of(new SuggestionDto("iPhone 15", 3), new SuggestionDto("iPhone Case", 1)));
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/search/suggest")
+                                .param("prefix", "iph")
+                                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("iPhone 15"))
+                .andExpect(jsonPath("$[0].weight").value(3));
+    }
+
+    @Test
+    public void cacheStats_Success() throws Exception {
+        SearchCacheStatsDto stats = new SearchCacheStatsDto();
+        stats.setHits(3);
+        stats.setMisses(1);
+        stats.setHitRatio(0.75);
+        stats.setDistinctKeysToday(2);
+        when(searchService.getCacheStats()).thenReturn(stats);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/search/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRatio").value(0.75))
+                .andExpect(jsonPath("$.distinctKeysToday").value(2));
+    }
 }
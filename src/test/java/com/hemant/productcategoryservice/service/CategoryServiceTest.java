@@ -0,0 +1,87 @@
+package com.hemant.productcategoryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemant.productcategoryservice.configs.KafkaProducerClientConfig;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.repositories.CategoryRepository;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import com.hemant.productcategoryservice.service.cachingService.EarlyRefresh;
+import com.hemant.productcategoryservice.service.cachingService.ProductAccessRecorder;
+import com.hemant.productcategoryservice.service.cachingService.ProductLocalCache;
+import com.hemant.productcategoryservice.service.indexingService.ProductIdFilter;
+import com.hemant.productcategoryservice.service.indexingService.ProductIndexSync;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CategoryServiceTest {
+
+    private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private RedisTemplate<String, Object> redisTemplate;
+    private SearchCacheGenerationService searchCacheGenerationService;
+    private ProductLocalCache productLocalCache;
+    private ProductIndexSync productIndexSync;
+    private CategoryService categoryService;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        productRepository = mock(ProductRepository.class);
+        redisTemplate = mock(RedisTemplate.class);
+        searchCacheGenerationService = mock(SearchCacheGenerationService.class);
+        productLocalCache = mock(ProductLocalCache.class);
+        productIndexSync = mock(ProductIndexSync.class);
+        ProductService productService = new ProductService(categoryRepository, productRepository, (RedisTemplate) redisTemplate,
+                mock(RedissonClient.class), mock(KafkaProducerClientConfig.class), new ObjectMapper(), productIndexSync,
+                searchCacheGenerationService, new SingleFlight(), productLocalCache, mock(ProductAccessRecorder.class),
+                mock(EarlyRefresh.class), mock(ProductIdFilter.class));
+        categoryService = new CategoryService(categoryRepository, productIndexSync, productService);
+
+        Category category = new Category();
+        category.setId(7L);
+        category.setTitle("Phones");
+        when(categoryRepository.findById(7L)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testUpdateCategory_RenameEvictsCachedProductsAndSearches() {
+        // one full batch and a partial one
+        List<Long> firstBatch = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(productRepository.findCategoryIdsAfter(eq(7L), eq(0L), any(Pageable.class))).thenReturn(firstBatch);
+        when(productRepository.findCategoryIdsAfter(eq(7L), eq(1000L), any(Pageable.class))).thenReturn(List.of(1001L, 1002L));
+
+        categoryService.updateCategory(7L, category("Mobile phones"));
+
+        verify(searchCacheGenerationService).bumpGenerations(7L);
+        verify(redisTemplate).delete(firstBatch.stream().map(id -> "PRODUCTS_PRODUCT_" + id).toList());
+        verify(redisTemplate).delete(List.of("PRODUCTS_PRODUCT_1001", "PRODUCTS_PRODUCT_1002"));
+        verify(productLocalCache).invalidateAllEverywhere();
+        verify(productIndexSync).categoryChanged(7L);
+    }
+
+    @Test
+    public void testUpdateCategory_SameTitleLeavesCachesAlone() {
+        categoryService.updateCategory(7L, category("Phones"));
+
+        verifyNoInteractions(searchCacheGenerationService, redisTemplate, productLocalCache, productRepository);
+        verify(productIndexSync, never()).categoryChanged(anyLong());
+    }
+
+    private static Category category(String title) {
+        Category category = new Category();
+        category.setTitle(title);
+        return category;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hemant.productcategoryservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorCodecTest {
+
+    @Test
+    public void testRoundTrip_RestoresKeysAndTypes() {
+        Map<String, Object> lastRow = new LinkedHashMap<>();
+        lastRow.put("price", 20.0);
+        lastRow.put("id", 7L);
+        Window<String> window = Window.from(List.of("a", "b"), i -> ScrollPosition.forward(i == 1 ? lastRow : Map.of("price", 10.0, "id", 3L)), true);
+
+        String cursor = CursorCodec.nextCursor(window);
+        KeysetScrollPosition position = CursorCodec.decode(cursor, Set.of("price", "id"));
+
+        assertEquals(lastRow, position.getKeys());
+        assertInstanceOf(Long.class, position.getKeys().get("id"));
+        assertInstanceOf(Double.class, position.getKeys().get("price"));
+        assertTrue(position.scrollsForward());
+        // URL-safe without padding, so it can go into a query string as is
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void testRoundTrip_WholeNumberPriceStaysDouble() {
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("price", 20.0, "id", 1L)), true);
+
+        KeysetScrollPosition position = CursorCodec.decode(CursorCodec.nextCursor(window), Set.of("price", "id"));
+
+        assertEquals(20.0, position.getKeys().get("price"));
+    }
+
+    @Test
+    public void testNextCursor_NullOnLastOrEmptyWindow() {
+        assertNull(CursorCodec.nextCursor(Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("id", 1L)), false)));
+        assertNull(CursorCodec.nextCursor(Window.from(List.<String>of(), i -> ScrollPosition.forward(Map.of("id", 1L)), true)));
+    }
+
+    @Test
+    public void testDecode_NoCursorStartsAtTheBeginning() {
+        assertTrue(CursorCodec.decode(null, Set.of("id")).isInitial());
+        assertTrue(CursorCodec.decode(" ", Set.of("id")).isInitial());
+    }
+
+    @Test
+    public void testDecode_RejectsTamperedCursors() {
+        String valid = encode("{\"id\":5}");
+        assertEquals(5L, CursorCodec.decode(valid, Set.of("id")).getKeys().get("id"));
+
+        List<String> tampered = List.of(
+                "not base64!",
+                valid.substring(0, valid.length() - 2) + "%%",
+                encode("not json"),
+                encode("[5]"),
+                encode("{\"id\":\"5 or 1=1\"}"),
+                encode("{\"id\":5.5}"),
+                encode("{\"id\":null}"),
+                encode("{\"id\":5,\"price\":1.0}"),
+                encode("{\"price\":1.0}"));
+        for (String cursor : tampered) {
+            assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(cursor, Set.of("id")), cursor);
+        }
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode("{\"price\":\"cheap\",\"id\":5}"), Set.of("price", "id")));
+    }
+
+    @Test
+    public void testRoundTrip_CreatedAtKeepsSubMillisecondPrecision() {
+        Timestamp createdAt = Timestamp.from(Instant.parse("2026-01-02T03:04:05.123456Z"));
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("createdAt", createdAt, "id", 9L)), true);
+
+        KeysetScrollPosition position = CursorCodec.decode(CursorCodec.nextCursor(window), Set.of("createdAt", "id"));
+
+        assertEquals(createdAt, position.getKeys().get("createdAt"));
+        assertEquals(9L, position.getKeys().get("id"));
+    }
+
+    @Test
+    public void testRoundTrip_Title() {
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("title", "Phone", "id", 4L)), true);
+
+        KeysetScrollPosition position = CursorCodec.decode(CursorCodec.nextCursor(window), Set.of("title", "id"));
+
+        assertEquals("Phone", position.getKeys().get("title"));
+    }
+
+    @Test
+    public void testDecode_RejectsMistypedTitleAndCreatedAt() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode("{\"title\":5,\"id\":5}"), Set.of("title", "id")));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode("{\"createdAt\":\"yesterday\",\"id\":5}"), Set.of("createdAt", "id")));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(encode("{\"createdAt\":1700000000000,\"id\":5}"), Set.of("createdAt", "id")));
+    }
+
+    @Test
+    public void testDecode_RejectsCursorOfAnotherSorting() {
+        String priceCursor = encode("{\"price\":1.0,\"id\":5}");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(priceCursor, Set.of("title", "id")));
+        assertEquals("Cursor does not match the requested sorting", thrown.getMessage());
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
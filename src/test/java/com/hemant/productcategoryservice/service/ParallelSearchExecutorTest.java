@@ -0,0 +1,114 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.dtos.CategoryFacetDto;
+import com.hemant.productcategoryservice.dtos.PriceBucketDto;
+import com.hemant.productcategoryservice.dtos.SearchFacetsDto;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.sortingService.PriceHighToLowSorter;
+import com.hemant.productcategoryservice.service.sortingService.PriceLowToHighSorter;
+import com.hemant.productcategoryservice.service.sortingService.Sorter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchExecutorTest {
+
+    private static final double[] BUCKETS = {25.0, 50.0, 75.0};
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    // everything goes through shards of at most 100 candidates
+    private final ParallelSearchExecutor parallel = new ParallelSearchExecutor(pool, 1, 100);
+    private final ParallelSearchExecutor sequential = new ParallelSearchExecutor(pool, Integer.MAX_VALUE, 100);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testRun_ShardedMatchesSinglePass() {
+        List<Product> candidates = products(5000);
+        Predicate<Product> filter = product -> product.getId() % 3 != 0;
+
+        for (Sorter sorter : List.of(new PriceLowToHighSorter(), new PriceHighToLowSorter())) {
+            ParallelSearchExecutor.SearchPass expected = sequential.run(candidates, filter, sorter, 50, BUCKETS);
+            ParallelSearchExecutor.SearchPass actual = parallel.run(candidates, filter, sorter, 50, BUCKETS);
+
+            assertEquals(expected.matchCount(), actual.matchCount());
+            assertEquals(ids(expected.top()), ids(actual.top()));
+            assertFacetsEqual(expected.facets().toDto(), actual.facets().toDto());
+        }
+    }
+
+    @Test
+    public void testRun_EqualPricesKeepCandidateOrderAcrossShards() {
+        List<Product> candidates = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            // ids descending, so the candidate order differs from id order
+            candidates.add(product(1001 - id, 1L, 10.0));
+        }
+
+        ParallelSearchExecutor.SearchPass pass = parallel.run(candidates, product -> true, new PriceLowToHighSorter(), 5, null);
+
+        assertEquals(List.of(1000L, 999L, 998L, 997L, 996L), ids(pass.top()));
+        assertEquals(1000, pass.matchCount());
+        assertNull(pass.facets());
+    }
+
+    @Test
+    public void testRun_LimitAboveMatchCountReturnsAllMatches() {
+        List<Product> candidates = products(1000);
+
+        ParallelSearchExecutor.SearchPass pass = parallel.run(candidates, product -> product.getId() <= 7, new PriceLowToHighSorter(), 20, BUCKETS);
+
+        assertEquals(7, pass.matchCount());
+        assertEquals(7, pass.top().size());
+        long counted = pass.facets().toDto().getPriceBuckets().stream().mapToLong(PriceBucketDto::getCount).sum();
+        assertEquals(7, counted);
+    }
+
+    private static void assertFacetsEqual(SearchFacetsDto expected, SearchFacetsDto actual) {
+        assertEquals(categoryCounts(expected), categoryCounts(actual));
+        assertEquals(expected.getPriceBuckets().stream().map(PriceBucketDto::getCount).toList(),
+                actual.getPriceBuckets().stream().map(PriceBucketDto::getCount).toList());
+    }
+
+    private static Map<Long, Long> categoryCounts(SearchFacetsDto facets) {
+        return facets.getCategories().stream().collect(Collectors.toMap(CategoryFacetDto::getCategoryId, CategoryFacetDto::getCount));
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static List<Product> products(int count) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            // whole prices repeat a lot, which exercises the tie-breaking
+            products.add(product(id, 1 + random.nextInt(5), random.nextInt(100)));
+        }
+        return products;
+    }
+
+    private static Product product(long id, long categoryId, double price) {
+        Category category = new Category();
+        category.setId(categoryId);
+        category.setTitle("Category " + categoryId);
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+}
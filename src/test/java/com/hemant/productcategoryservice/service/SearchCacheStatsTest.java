@@ -0,0 +1,101 @@
+package com.hemant.productcategoryservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHyperLogLogCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SearchCacheStatsTest {
+
+    private StringRedisTemplate stringRedisTemplate;
+    private HyperLogLogOperations<String, String> hyperLogLog;
+    private RedisHyperLogLogCommands hyperLogLogCommands;
+    private RedisKeyCommands keyCommands;
+    private Clock clock;
+    private SearchCacheStats stats;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        hyperLogLog = mock(HyperLogLogOperations.class);
+        when(stringRedisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLog);
+        hyperLogLogCommands = mock(RedisHyperLogLogCommands.class);
+        keyCommands = mock(RedisKeyCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.hyperLogLogCommands()).thenReturn(hyperLogLogCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        // run the pipelined callback against the mocked connection
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return null;
+        });
+        clock = mock(Clock.class);
+        when(clock.withZone(any())).thenReturn(clock);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(Instant.parse("2026-03-01T10:00:00Z"));
+        stats = new SearchCacheStats(stringRedisTemplate, clock);
+    }
+
+    @Test
+    public void testRecordMiss_FirstMissOfTheDayPipelinesAddAndExpire() {
+        stats.recordMiss("key-1");
+
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(hyperLogLogCommands).pfAdd(bytes("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-01"), bytes("key-1"));
+        verify(keyCommands).expire(bytes("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-01"), 2 * 24 * 3600L);
+        verifyNoInteractions(hyperLogLog);
+    }
+
+    @Test
+    public void testRecordMiss_LaterMissesAreASingleAdd() {
+        stats.recordMiss("key-1");
+        stats.recordMiss("key-2");
+        stats.recordMiss("key-3");
+
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(hyperLogLog).add("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-01", "key-2");
+        verify(hyperLogLog).add("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-01", "key-3");
+        verify(keyCommands, times(1)).expire(any(byte[].class), anyLong());
+    }
+
+    @Test
+    public void testRecordMiss_NewDaySetsTheTtlAgain() {
+        stats.recordMiss("key-1");
+        when(clock.instant()).thenReturn(Instant.parse("2026-03-02T00:00:01Z"));
+
+        stats.recordMiss("key-2");
+
+        verify(keyCommands).expire(bytes("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-02"), 2 * 24 * 3600L);
+        verify(hyperLogLogCommands).pfAdd(bytes("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-02"), bytes("key-2"));
+    }
+
+    @Test
+    public void testSnapshot_HitRatio() {
+        when(hyperLogLog.size("PRODUCTS_SEARCH_DISTINCT_KEYS_2026-03-01")).thenReturn(7L);
+        stats.recordHit();
+        stats.recordHit();
+        stats.recordHit();
+        stats.recordMiss("key-1");
+
+        assertEquals(0.75, stats.snapshot().getHitRatio());
+        assertEquals(7, stats.snapshot().getDistinctKeysToday());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,108 @@
+package com.hemant.productcategoryservice.service;
+
+import com.hemant.productcategoryservice.dtos.CachedSearchResult;
+import com.hemant.productcategoryservice.dtos.CategoryFacetDto;
+import com.hemant.productcategoryservice.dtos.PriceBucketDto;
+import com.hemant.productcategoryservice.dtos.SearchResult;
+import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import com.hemant.productcategoryservice.service.cachingService.EarlyRefresh;
+import com.hemant.productcategoryservice.service.filteringService.FilterFactory;
+import com.hemant.productcategoryservice.service.indexingService.CategoryPriceIndex;
+import com.hemant.productcategoryservice.service.indexingService.RelevanceIndex;
+import com.hemant.productcategoryservice.service.indexingService.SearchEngine;
+import com.hemant.productcategoryservice.service.indexingService.SuggestionIndex;
+import com.hemant.productcategoryservice.service.indexingService.TrigramIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SearchServiceTest {
+
+    private static final double[] BUCKETS = {10.0, 20.0};
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private RedisTemplate<String, Object> redisTemplate;
+    private ValueOperations<String, Object> valueOperations;
+    private ProductService productService;
+    private SearchEngine searchEngine;
+    private EarlyRefresh earlyRefresh;
+    private SearchService searchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        productService = mock(ProductService.class);
+        searchEngine = mock(SearchEngine.class);
+        earlyRefresh = mock(EarlyRefresh.class);
+        when(earlyRefresh.storedTtl(any())).thenReturn(Duration.ofDays(2));
+        when(earlyRefresh.timed(anyString(), any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(1)).get());
+        searchService = new SearchService(mock(ProductRepository.class), redisTemplate, productService,
+                mock(SearchCacheGenerationService.class), searchEngine, new CategoryPriceIndex(), mock(SuggestionIndex.class),
+                mock(TrigramIndex.class), new RelevanceIndex(), new ParallelSearchExecutor(pool, Integer.MAX_VALUE, 4096),
+                new SingleFlight(), mock(SearchCacheStats.class), earlyRefresh, new FilterFactory());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testSearchWithFacets_FacetsCachedWithTheIds() {
+        List<Product> products = List.of(product(1L, 1L, 5.0), product(2L, 2L, 15.0), product(3L, 1L, 25.0));
+        when(searchEngine.search("lamp")).thenReturn(products);
+
+        SearchResult computed = searchService.searchWithFacets("lamp", List.of(), SortingCriteria.PRICE_LOW_TO_HIGH, 2, 1, BUCKETS);
+
+        ArgumentCaptor<Object> stored = ArgumentCaptor.forClass(Object.class);
+        verify(valueOperations).set(anyString(), stored.capture(), any(Duration.class));
+        CachedSearchResult cachedResult = (CachedSearchResult) stored.getValue();
+        assertEquals(List.of(1L, 2L), cachedResult.getProductIds());
+        assertEquals(3, cachedResult.getTotalElements());
+        assertSame(computed.getFacets(), cachedResult.getFacets());
+        // facets count every match, not only the page
+        assertEquals(List.of(1L, 1L, 1L), cachedResult.getFacets().getPriceBuckets().stream().map(PriceBucketDto::getCount).toList());
+
+        // a hit serves the facets and the page from the cached entry without searching again
+        when(earlyRefresh.get(eq(redisTemplate), anyString(), anyString(), any())).thenReturn(cachedResult);
+        when(productService.getProducts(List.of(1L, 2L))).thenReturn(products.subList(0, 2));
+
+        SearchResult cached = searchService.searchWithFacets("lamp", List.of(), SortingCriteria.PRICE_LOW_TO_HIGH, 2, 1, BUCKETS);
+
+        assertEquals(List.of(1L, 2L), cached.getProducts().getContent().stream().map(Product::getId).toList());
+        assertEquals(3, cached.getProducts().getTotalElements());
+        assertEquals(List.of(1L, 2L), cached.getFacets().getCategories().stream().map(CategoryFacetDto::getCategoryId).toList());
+        assertEquals(List.of(2L, 1L), cached.getFacets().getCategories().stream().map(CategoryFacetDto::getCount).toList());
+        verify(searchEngine, times(1)).search("lamp");
+    }
+
+    private static Product product(long id, long categoryId, double price) {
+        Category category = new Category();
+        category.setId(categoryId);
+        category.setTitle("Category " + categoryId);
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle("Lamp " + id);
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,114 @@
+package com.hemant.productcategoryservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    public void testExecute_ConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<Object>> results = runConcurrently(() -> {
+            loads.incrementAndGet();
+            return "product";
+        });
+
+        for (Future<Object> result : results) {
+            assertEquals("product", result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testExecute_ExceptionReachesEveryWaiter() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("database down");
+        List<Future<Object>> results = runConcurrently(() -> {
+            loads.incrementAndGet();
+            throw failure;
+        });
+
+        for (Future<Object> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testExecute_LaterCallLoadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, singleFlight.execute("PRODUCT_1", loads::incrementAndGet));
+        assertEquals(2, singleFlight.execute("PRODUCT_1", loads::incrementAndGet));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("PRODUCT_1", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        // a failed load doesn't stay in flight either
+        assertEquals(3, singleFlight.execute("PRODUCT_1", loads::incrementAndGet));
+    }
+
+    @Test
+    public void testExecute_DifferentKeysDontShare() {
+        // PRODUCT_2 is loaded while PRODUCT_1 is in flight; it must not wait for or share PRODUCT_1's load
+        assertEquals("ab", singleFlight.execute("PRODUCT_1", () -> "a" + singleFlight.execute("PRODUCT_2", () -> "b")));
+    }
+
+    // Runs CALLERS calls of the same key; the first to get in holds the load until all others wait on it
+    private List<Future<Object>> runConcurrently(Supplier<Object> loader) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Thread> callers = new CopyOnWriteArrayList<>();
+        AtomicInteger leaders = new AtomicInteger();
+        List<Future<Object>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    callers.add(Thread.currentThread());
+                    return singleFlight.execute("PRODUCT_1", () -> {
+                        leaders.incrementAndGet();
+                        awaitOthersWaiting(callers);
+                        return loader.get();
+                    });
+                }));
+            }
+            for (Future<Object> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException ignored) {
+                    // checked by the caller
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, leaders.get());
+        return results;
+    }
+
+    private static void awaitOthersWaiting(List<Thread> callers) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            long waiting = callers.stream()
+                    .filter(thread -> thread != Thread.currentThread())
+                    .filter(thread -> thread.getState() == Thread.State.WAITING)
+                    .count();
+            if (callers.size() == CALLERS && waiting == CALLERS - 1) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        fail("other callers never started waiting");
+    }
+}
@@ -0,0 +1,129 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EarlyRefreshTest {
+
+    private static final Duration GRACE = Duration.ofMinutes(10);
+
+    private ThreadPoolExecutor executor;
+    private RedisTemplate<String, String> redisTemplate;
+    private EarlyRefresh earlyRefresh;
+    private final AtomicInteger refreshes = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        executor = mock(ThreadPoolExecutor.class);
+        redisTemplate = mock(RedisTemplate.class);
+        earlyRefresh = new EarlyRefresh(executor, 1.0, GRACE);
+    }
+
+    @Test
+    public void testStoredTtl_AddsTheStaleGrace() {
+        assertEquals(Duration.ofMinutes(15), earlyRefresh.storedTtl(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void testGet_MissReturnsNullWithoutRefresh() {
+        stored(null, -2L);
+
+        assertNull(earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    public void testGet_FreshEntryIsNotRefreshed() {
+        // an hour before the TTL runs out, with the default 50 ms recompute time
+        stored("value", GRACE.plusHours(1).toMillis());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        }
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    public void testGet_EntryWithoutExpiryIsNotRefreshed() {
+        stored("value", -1L);
+
+        assertEquals("value", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    public void testGet_StaleEntryIsServedAndRefreshedOnce() {
+        stored("stale", GRACE.toMillis() - 1000);
+
+        assertEquals("stale", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        assertEquals("stale", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+
+        // the second read finds a reload already queued
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(1)).execute(task.capture());
+        task.getValue().run();
+        assertEquals(1, refreshes.get());
+
+        // once it has run, a later stale read may queue another
+        earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet);
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testGet_FailedRefreshFreesTheKey() {
+        stored("stale", 0L);
+        earlyRefresh.get(redisTemplate, "search", "key", () -> {
+            throw new IllegalStateException("database down");
+        });
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(task.capture());
+
+        task.getValue().run();
+        earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet);
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testGet_RejectedRefreshIsRetriedByALaterRead() {
+        stored("stale", 0L);
+        doThrow(new RejectedExecutionException("full")).doNothing().when(executor).execute(any(Runnable.class));
+
+        assertEquals("stale", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        assertEquals("stale", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testGet_EntryCloseToExpiryIsRefreshedAhead() {
+        // 50 ms left with the default 50 ms recompute time: each read refreshes with probability 1/e
+        stored("value", GRACE.toMillis() + 50);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value", earlyRefresh.get(redisTemplate, "search", "key", refreshes::incrementAndGet));
+        }
+
+        // queued once, however many reads picked it
+        verify(executor, times(1)).execute(any(Runnable.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stored(String value, Long expiresInMillis) {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(value, expiresInMillis));
+    }
+}
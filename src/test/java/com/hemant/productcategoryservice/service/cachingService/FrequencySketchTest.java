@@ -0,0 +1,66 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testFrequency_NeverBelowTrueCount() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int key = 0; key < 500; key++) {
+            for (int i = 0; i < key % 10; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (int key = 0; key < 500; key++) {
+            assertTrue(sketch.frequency(key) >= key % 10, "key " + key);
+        }
+    }
+
+    @Test
+    public void testFrequency_OneOffKeysStayLow() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int key = 0; key < 5000; key++) {
+            sketch.increment(key);
+        }
+
+        int overcounted = 0;
+        for (int key = 0; key < 5000; key++) {
+            if (sketch.frequency(key) > 2) {
+                overcounted++;
+            }
+        }
+        assertTrue(overcounted < 100, overcounted + " one-off keys look frequent");
+    }
+
+    @Test
+    public void testIncrement_CappedAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+
+        assertEquals(15, sketch.frequency("hot"));
+    }
+
+    @Test
+    public void testReset_HalvesCountsAfterSample() {
+        // 10 increments per expected entry, at least 64 entries: the 640th increment halves every counter
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 12; i++) {
+            sketch.increment("hot");
+        }
+        for (int key = 0; key < 640 - 12 - 1; key++) {
+            sketch.increment(key);
+        }
+        int beforeReset = sketch.frequency("hot");
+
+        sketch.increment(-1);
+
+        assertTrue(beforeReset >= 12);
+        assertEquals(beforeReset / 2, sketch.frequency("hot"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductAccessRecorderTest {
+
+    private static final byte[] KEY = "PRODUCTS_HOT".getBytes(StandardCharsets.UTF_8);
+
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisZSetCommands zSetCommands;
+    private ProductAccessRecorder recorder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        zSetCommands = mock(RedisZSetCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        // run the pipelined callback against the mocked connection
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return null;
+        });
+        recorder = new ProductAccessRecorder(stringRedisTemplate, 3);
+    }
+
+    @Test
+    public void testRecord_DoesNotTouchRedis() {
+        recorder.record(1L);
+        recorder.record(1L);
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    public void testFlush_OnePipelineWithSummedCounts() {
+        for (int i = 0; i < 5; i++) {
+            recorder.record(1L);
+        }
+        recorder.record(2L);
+
+        recorder.flush();
+
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands).zIncrBy(KEY, 5, bytes("1"));
+        verify(zSetCommands).zIncrBy(KEY, 1, bytes("2"));
+        verify(zSetCommands).zRemRange(KEY, 0, -20001);
+    }
+
+    @Test
+    public void testFlush_StartsCountingAfresh() {
+        recorder.record(1L);
+        recorder.flush();
+        recorder.flush();
+        recorder.record(1L);
+        recorder.flush();
+
+        verify(stringRedisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+        verify(zSetCommands, times(2)).zIncrBy(KEY, 1, bytes("1"));
+    }
+
+    @Test
+    public void testRecord_DistinctIdsBoundedBetweenFlushes() {
+        for (long productId = 1; productId <= 10; productId++) {
+            recorder.record(productId);
+        }
+        // already counted ids keep counting
+        recorder.record(1L);
+
+        recorder.flush();
+
+        ArgumentCaptor<byte[]> members = ArgumentCaptor.forClass(byte[].class);
+        verify(zSetCommands, times(3)).zIncrBy(eq(KEY), anyDouble(), members.capture());
+        verify(zSetCommands).zIncrBy(KEY, 2, bytes("1"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
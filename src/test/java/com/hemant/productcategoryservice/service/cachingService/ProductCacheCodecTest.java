@@ -0,0 +1,214 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCacheCodecTest {
+
+    private static final int FLAGS = 2;
+
+    private final ProductCacheCodec uncompressed = new ProductCacheCodec(0);
+    private final ProductCacheCodec compressing = new ProductCacheCodec(64);
+
+    @Test
+    public void testRoundTrip_AllFields_CompressionOffAndOn() {
+        for (ProductCacheCodec codec : new ProductCacheCodec[]{uncompressed, compressing}) {
+            Product product = fullProduct("Phone case, black — 日本語 ✓", "Short description");
+
+            assertSameProduct(product, codec.deserialize(codec.serialize(product)));
+        }
+    }
+
+    @Test
+    public void testSerialize_LongBodyIsCompressed() {
+        Product product = fullProduct("Phone", "A very durable phone case. ".repeat(40));
+
+        byte[] plain = uncompressed.serialize(product);
+        byte[] compressed = compressing.serialize(product);
+
+        assertEquals(0, plain[FLAGS]);
+        assertEquals(1, compressed[FLAGS]);
+        assertTrue(compressed.length < plain.length);
+        assertSameProduct(product, compressing.deserialize(compressed));
+        // the flag, not the codec's own threshold, decides how a value is read
+        assertSameProduct(product, uncompressed.deserialize(compressed));
+    }
+
+    @Test
+    public void testSerialize_IncompressibleBodyStaysPlain() {
+        StringBuilder noise = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            noise.append((char) ('!' + random.nextInt(90)));
+        }
+        Product product = fullProduct("Noise", noise.toString());
+
+        byte[] bytes = compressing.serialize(product);
+
+        assertEquals(0, bytes[FLAGS]);
+        assertSameProduct(product, compressing.deserialize(bytes));
+    }
+
+    @Test
+    public void testSerialize_Layout() {
+        Product idOnly = new Product();
+        idOnly.setId(1L);
+        // header, presence bitmask {ID} zig-zagged, id 1 zig-zagged
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x02, 0x02), uncompressed.serialize(idOnly));
+
+        Product priceOnly = new Product();
+        priceOnly.setPrice(1.0);
+        // presence {PRICE} = 16, zig-zagged 32; then the raw double bits, big-endian
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x20, 0x3F, 0xF0, 0, 0, 0, 0, 0, 0), uncompressed.serialize(priceOnly));
+
+        Product empty = new Product();
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x00), uncompressed.serialize(empty));
+
+        Product emptyCategory = new Product();
+        emptyCategory.setCategory(new Category());
+        // presence {CATEGORY} = 256, zig-zagged 512, takes two varint bytes
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x80, 0x04), uncompressed.serialize(emptyCategory));
+    }
+
+    @Test
+    public void testVarints_ZigZagKeepsSmallNegativesShort() {
+        Product product = new Product();
+        product.setQuantity(-64);
+        // presence {QUANTITY} = 128 -> 256 zig-zagged -> 0x80 0x02; -64 -> 127 -> one byte
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x80, 0x02, 0x7F), uncompressed.serialize(product));
+
+        product.setQuantity(-65);
+        assertArrayEquals(bytes(0xC7, 0x01, 0x00, 0x80, 0x02, 0x81, 0x01), uncompressed.serialize(product));
+    }
+
+    @Test
+    public void testRoundTrip_ExtremeValues() {
+        for (long id : new long[]{0, -1, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            for (int quantity : new int[]{0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+                Product product = new Product();
+                product.setId(id);
+                product.setQuantity(quantity);
+                product.setCreatedAt(new Date(-1));
+
+                Product decoded = uncompressed.deserialize(uncompressed.serialize(product));
+
+                assertEquals(id, decoded.getId());
+                assertEquals(quantity, decoded.getQuantity());
+                assertEquals(new Date(-1), decoded.getCreatedAt());
+            }
+        }
+        for (double price : new double[]{-0.0, Double.NaN, Double.MIN_VALUE, Double.MAX_VALUE, 19.99}) {
+            Product product = new Product();
+            product.setPrice(price);
+
+            Product decoded = uncompressed.deserialize(uncompressed.serialize(product));
+
+            assertEquals(Double.doubleToRawLongBits(price), Double.doubleToRawLongBits(decoded.getPrice()));
+        }
+    }
+
+    @Test
+    public void testRoundTrip_NullFieldsAndMissingCategory() {
+        Product product = new Product();
+        product.setId(5L);
+        product.setTitle("");
+
+        Product decoded = uncompressed.deserialize(uncompressed.serialize(product));
+
+        assertEquals(5L, decoded.getId());
+        assertEquals("", decoded.getTitle());
+        assertNull(decoded.getPrice());
+        assertNull(decoded.getDescription());
+        assertNull(decoded.getImgUrl());
+        assertNull(decoded.getQuantity());
+        assertNull(decoded.getCreatedAt());
+        assertNull(decoded.getLastModifiedAt());
+        assertNull(decoded.getCategory());
+
+        product.setCategory(new Category());
+        Category category = uncompressed.deserialize(uncompressed.serialize(product)).getCategory();
+        assertNotNull(category);
+        assertNull(category.getId());
+        assertNull(category.getTitle());
+    }
+
+    @Test
+    public void testDeserialize_UnreadableValuesAreMisses() {
+        byte[] valid = uncompressed.serialize(fullProduct("Phone", "Case"));
+
+        byte[] otherMagic = valid.clone();
+        otherMagic[0] = 0x7B;
+        byte[] otherVersion = valid.clone();
+        otherVersion[1] = 2;
+
+        assertNull(uncompressed.deserialize(otherMagic));
+        assertNull(uncompressed.deserialize(otherVersion));
+        assertNull(uncompressed.deserialize("{\"@class\":\"com.hemant.productcategoryservice.models.Product\",\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(uncompressed.deserialize(new byte[0]));
+        assertNull(uncompressed.deserialize(null));
+        assertArrayEquals(new byte[0], uncompressed.serialize(null));
+    }
+
+    @Test
+    public void testDeserialize_CorruptValuesThrow() {
+        byte[] plain = uncompressed.serialize(fullProduct("Phone", "Case"));
+        byte[] compressed = compressing.serialize(fullProduct("Phone", "A very durable phone case. ".repeat(40)));
+        byte[] corruptBlock = compressed.clone();
+        Arrays.fill(corruptBlock, 5, corruptBlock.length, (byte) 0xFF);
+
+        assertThrows(SerializationException.class, () -> uncompressed.deserialize(Arrays.copyOf(plain, plain.length - 3)));
+        assertThrows(SerializationException.class, () -> uncompressed.deserialize(Arrays.copyOf(compressed, compressed.length / 2)));
+        assertThrows(SerializationException.class, () -> uncompressed.deserialize(corruptBlock));
+    }
+
+    private static Product fullProduct(String title, String description) {
+        Category category = new Category();
+        category.setId(3L);
+        category.setTitle("Accessories");
+        category.setCreatedAt(new Date(1_600_000_000_000L));
+        category.setLastModifiedAt(new Date(1_700_000_000_000L));
+        Product product = new Product();
+        product.setId(123_456L);
+        product.setTitle(title);
+        product.setDescription(description);
+        product.setPrice(19.99);
+        product.setImgUrl("https://example.com/img/123456.png");
+        product.setQuantity(42);
+        product.setCreatedAt(new Date(1_650_000_000_000L));
+        product.setLastModifiedAt(new Date(1_750_000_000_000L));
+        product.setCategory(category);
+        return product;
+    }
+
+    private static void assertSameProduct(Product expected, Product actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPrice(), actual.getPrice());
+        assertEquals(expected.getImgUrl(), actual.getImgUrl());
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getLastModifiedAt(), actual.getLastModifiedAt());
+        assertEquals(expected.getCategory().getId(), actual.getCategory().getId());
+        assertEquals(expected.getCategory().getTitle(), actual.getCategory().getTitle());
+        assertEquals(expected.getCategory().getCreatedAt(), actual.getCategory().getCreatedAt());
+        assertEquals(expected.getCategory().getLastModifiedAt(), actual.getCategory().getLastModifiedAt());
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,176 @@
+package com.hemant.productcategoryservice.service.cachingService;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TinyLfuCacheTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    // Every value weighs its length
+    private TinyLfuCache<Integer, String> cache(long maxWeight) {
+        return new TinyLfuCache<>(maxWeight, Duration.ofMinutes(5), value -> value.length(), (int) maxWeight, ticker::get);
+    }
+
+    @Test
+    public void testAdmission_WindowVictimEntersProbationOnlyIfMoreFrequent() {
+        // window of 1, main space of 9
+        TinyLfuCache<Integer, String> cache = cache(10);
+        for (int key = 1; key <= 9; key++) {
+            readTimes(cache, key, 3);
+            cache.put(key, "x");
+        }
+        cache.put(100, "x");
+
+        // 100 leaves the window never read; it loses against the eldest probation entry
+        cache.put(200, "x");
+        assertFalse(cache.contains(100));
+        assertTrue(cache.contains(1));
+
+        // 300 was asked for more often than 1 and takes its place
+        readTimes(cache, 300, 5);
+        cache.put(300, "x");
+        cache.put(400, "x");
+        assertTrue(cache.contains(300));
+        assertFalse(cache.contains(1));
+        assertTrue(cache.contains(2));
+        assertEquals(10, cache.weightedSize());
+    }
+
+    @Test
+    public void testProtectedSegment_OverflowIsDemotedNotEvicted() {
+        // window of 1, protected segment of at most 79
+        TinyLfuCache<Integer, String> cache = cache(100);
+        for (int key = 1; key <= 100; key++) {
+            cache.put(key, "x");
+        }
+        // a second access promotes probation entries; past 79 the eldest go back to probation
+        for (int key = 1; key <= 100; key++) {
+            cache.get(key);
+        }
+        cache.cleanUp();
+
+        assertEquals(79, cache.protectedWeight());
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.weightedSize());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void testPut_WeightStaysWithinBound() {
+        TinyLfuCache<Integer, String> cache = cache(1000);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                cache.get(key);
+            } else {
+                cache.put(key, "x".repeat(1 + random.nextInt(50)));
+            }
+            assertTrue(cache.weightedSize() <= 1000, "weight " + cache.weightedSize());
+        }
+        assertTrue(cache.evictions() > 0);
+    }
+
+    @Test
+    public void testPut_OversizedValueIsNotCached() {
+        TinyLfuCache<Integer, String> cache = cache(100);
+        cache.put(1, "x");
+
+        cache.put(1, "x".repeat(100));
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    public void testGet_ExpiredEntryIsAMissAndLeaves() {
+        TinyLfuCache<Integer, String> cache = cache(100);
+        cache.put(1, "x");
+        ticker.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertEquals("x", cache.get(1));
+
+        ticker.incrementAndGet();
+
+        assertNull(cache.get(1));
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weightedSize());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void testScan_OneOffKeysLeaveHotSetAlone() {
+        TinyLfuCache<Integer, String> cache = cache(100);
+        List<Integer> hotKeys = new ArrayList<>();
+        for (int key = 0; key < 50; key++) {
+            hotKeys.add(key);
+            readTimes(cache, key, 5);
+            cache.put(key, "x");
+        }
+        // a scan of keys read once each, while the hot keys keep being read
+        for (int key = 1000; key < 21_000; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, "x");
+            }
+            if (key % 100 == 0) {
+                hotKeys.forEach(cache::get);
+            }
+        }
+
+        for (Integer hotKey : hotKeys) {
+            assertTrue(cache.contains(hotKey), "hot key " + hotKey + " evicted");
+        }
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites_KeepWeightConsistent() throws InterruptedException {
+        TinyLfuCache<Integer, String> cache = cache(500);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 50_000; i++) {
+                    int key = random.nextInt(1000);
+                    if (cache.get(key) == null) {
+                        cache.put(key, "x".repeat(1 + random.nextInt(10)));
+                    }
+                    if (i % 1000 == 0) {
+                        cache.invalidate(random.nextInt(1000));
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        cache.cleanUp();
+        long reads = cache.hits() + cache.misses();
+
+        long weight = 0;
+        for (int key = 0; key < 1000; key++) {
+            if (cache.contains(key)) {
+                weight += cache.get(key).length();
+            }
+        }
+        assertEquals(weight, cache.weightedSize());
+        assertTrue(cache.weightedSize() <= 500);
+        assertEquals(8 * 50_000, reads);
+    }
+
+    private static void readTimes(TinyLfuCache<Integer, String> cache, int key, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.get(key);
+        }
+    }
+}
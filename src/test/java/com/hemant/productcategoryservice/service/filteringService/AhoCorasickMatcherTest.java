@@ -0,0 +1,89 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AhoCorasickMatcherTest {
+
+    @Test
+    public void testMatchesAny_OverlappingPatterns() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("he", "she", "his", "hers"), false);
+
+        assertTrue(matcher.matchesAny("ushers"));
+        assertTrue(matcher.matchesAny("this"));
+        assertTrue(matcher.matchesAny("ahe"));
+        assertFalse(matcher.matchesAny("hs"));
+        assertFalse(matcher.matchesAny("sh"));
+    }
+
+    @Test
+    public void testMatchesAny_PatternInsideALongerOne() {
+        // the scan is on the path of "abcd" when "bc" completes; only the failure links find it
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("abcd", "bc"), false);
+
+        assertTrue(matcher.matchesAny("abcx"));
+        assertTrue(matcher.matchesAny("abcd"));
+        assertFalse(matcher.matchesAny("abdc"));
+    }
+
+    @Test
+    public void testMatchesAny_RestartsAfterPartialMatch() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("aab"), false);
+
+        assertTrue(matcher.matchesAny("aaab"));
+        assertFalse(matcher.matchesAny("aaa"));
+    }
+
+    @Test
+    public void testMatchesAny_CaseSensitivity() {
+        AhoCorasickMatcher sensitive = new AhoCorasickMatcher(List.of("Phone"), false);
+        AhoCorasickMatcher insensitive = new AhoCorasickMatcher(List.of("PhOnE"), true);
+
+        assertTrue(sensitive.matchesAny("iPhone case"));
+        assertFalse(sensitive.matchesAny("IPHONE CASE"));
+        assertTrue(insensitive.matchesAny("IPHONE CASE"));
+        assertTrue(insensitive.matchesAny("iphone case"));
+        assertFalse(insensitive.matchesAny("phon"));
+    }
+
+    @Test
+    public void testMatchesAny_EmptyAndNull() {
+        assertTrue(new AhoCorasickMatcher(List.of("x", ""), false).matchesAny("abc"));
+        assertTrue(new AhoCorasickMatcher(List.of(""), false).matchesAny(null));
+        assertFalse(new AhoCorasickMatcher(List.of("x"), false).matchesAny(null));
+        assertFalse(new AhoCorasickMatcher(List.of(), false).matchesAny("abc"));
+    }
+
+    @Test
+    public void testMatchesAny_AgreesWithContains() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            boolean ignoreCase = random.nextBoolean();
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                patterns.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, random.nextInt(20));
+            AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns, ignoreCase);
+
+            boolean expected = patterns.stream().anyMatch(pattern -> ignoreCase
+                    ? text.toLowerCase().contains(pattern.toLowerCase())
+                    : text.contains(pattern));
+            assertEquals(expected, matcher.matchesAny(text), patterns + " in " + text + " ignoreCase=" + ignoreCase);
+        }
+    }
+
+    // Small alphabet, mixed case, so patterns overlap a lot
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append("abAB".charAt(random.nextInt(4)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.dtos.CategoryFacetDto;
+import com.hemant.productcategoryservice.dtos.PriceBucketDto;
+import com.hemant.productcategoryservice.dtos.SearchFacetsDto;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetCounterTest {
+
+    @Test
+    public void testAdd_PriceOnABoundGoesToTheUpperBucket() {
+        FacetCounter counter = new FacetCounter(new double[] {10.0, 20.0});
+        counter.add(product(1L, 9.99));
+        counter.add(product(1L, 10.0));
+        counter.add(product(1L, 19.99));
+        counter.add(product(1L, 20.0));
+        counter.add(product(1L, 1000.0));
+
+        assertEquals(List.of(1L, 2L, 2L), bucketCounts(counter.toDto()));
+    }
+
+    @Test
+    public void testToDto_BucketsFollowSortedBounds() {
+        // bounds given out of order
+        FacetCounter counter = new FacetCounter(new double[] {50.0, 10.0});
+        counter.add(product(1L, 30.0));
+
+        List<PriceBucketDto> buckets = counter.toDto().getPriceBuckets();
+        assertEquals(Arrays.asList(null, 10.0, 50.0), buckets.stream().map(PriceBucketDto::getMin).toList());
+        assertEquals(Arrays.asList(10.0, 50.0, null), buckets.stream().map(PriceBucketDto::getMax).toList());
+        assertEquals(List.of(0L, 1L, 0L), bucketCounts(counter.toDto()));
+    }
+
+    @Test
+    public void testToDto_CategoriesByCountThenId() {
+        FacetCounter counter = new FacetCounter(new double[0]);
+        counter.add(product(7L, 1.0));
+        counter.add(product(3L, 1.0));
+        counter.add(product(5L, 1.0));
+        counter.add(product(5L, 1.0));
+        counter.add(product(1L, 1.0));
+
+        SearchFacetsDto facets = counter.toDto();
+        assertEquals(List.of(5L, 1L, 3L, 7L), facets.getCategories().stream().map(CategoryFacetDto::getCategoryId).toList());
+        assertEquals(List.of(2L, 1L, 1L, 1L), facets.getCategories().stream().map(CategoryFacetDto::getCount).toList());
+        assertEquals("Category 5", facets.getCategories().get(0).getTitle());
+    }
+
+    @Test
+    public void testAdd_ProductsWithoutCategoryOrPriceAreCountedWhereTheyCanBe() {
+        FacetCounter counter = new FacetCounter(new double[] {10.0});
+        Product noCategory = product(1L, 5.0);
+        noCategory.setCategory(null);
+        Product noPrice = product(2L, 0.0);
+        noPrice.setPrice(null);
+        counter.add(noCategory);
+        counter.add(noPrice);
+
+        SearchFacetsDto facets = counter.toDto();
+        assertEquals(1, facets.getCategories().size());
+        assertEquals(List.of(1L, 0L), bucketCounts(facets));
+    }
+
+    @Test
+    public void testMerge_AddsShardCounts() {
+        double[] bounds = {10.0};
+        FacetCounter first = new FacetCounter(bounds);
+        first.add(product(1L, 5.0));
+        first.add(product(2L, 15.0));
+        FacetCounter second = new FacetCounter(bounds);
+        second.add(product(2L, 5.0));
+        second.add(product(3L, 25.0));
+        FacetCounter empty = new FacetCounter(bounds);
+
+        first.merge(second);
+        first.merge(empty);
+
+        SearchFacetsDto facets = first.toDto();
+        assertEquals(List.of(2L, 1L, 3L), facets.getCategories().stream().map(CategoryFacetDto::getCategoryId).toList());
+        assertEquals(List.of(2L, 1L, 1L), facets.getCategories().stream().map(CategoryFacetDto::getCount).toList());
+        assertEquals("Category 3", facets.getCategories().get(2).getTitle());
+        assertEquals(List.of(2L, 2L), bucketCounts(facets));
+        // the merged-in counter is left as it was
+        assertEquals(List.of(1L, 1L), bucketCounts(second.toDto()));
+    }
+
+    private static List<Long> bucketCounts(SearchFacetsDto facets) {
+        return facets.getPriceBuckets().stream().map(PriceBucketDto::getCount).toList();
+    }
+
+    private static Product product(long categoryId, double price) {
+        Category category = new Category();
+        category.setId(categoryId);
+        category.setTitle("Category " + categoryId);
+        Product product = new Product();
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,106 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterFactoryTest {
+
+    private final FilterFactory filterFactory = new FilterFactory();
+
+    @Test
+    public void testSignature_IgnoresOrderAndDuplicates() {
+        List<FilterDto> filters = List.of(filter("description", false, "red", "blue"), filter("priceRange", false, "[1,10]"));
+        List<FilterDto> reordered = List.of(filter("priceRange", false, "[1,10]"), filter("description", false, "blue", "red", "blue"));
+        List<FilterDto> duplicated = List.of(filter("description", false, "red", "blue"), filter("priceRange", false, "[1,10]"),
+                filter("description", false, "blue", "red"));
+
+        assertEquals(FilterFactory.signature(filters), FilterFactory.signature(reordered));
+        assertEquals(FilterFactory.signature(filters), FilterFactory.signature(duplicated));
+    }
+
+    @Test
+    public void testSignature_LetterCaseOnlyIgnoredForCaseInsensitiveFilters() {
+        assertEquals(FilterFactory.signature(List.of(filter("description", true, "Red"))),
+                FilterFactory.signature(List.of(filter("description", true, "rED"))));
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false, "Red"))),
+                FilterFactory.signature(List.of(filter("description", false, "red"))));
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false, "red"))),
+                FilterFactory.signature(List.of(filter("description", true, "red"))));
+    }
+
+    @Test
+    public void testSignature_DifferentFiltersDiffer() {
+        // a value containing what looks like a separator must not collide with two values
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false, "a", "b"))),
+                FilterFactory.signature(List.of(filter("description", false, "a1:b"))));
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false, "a&description=1:b"))),
+                FilterFactory.signature(List.of(filter("description", false, "a"), filter("description", false, "b"))));
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false, "red"))),
+                FilterFactory.signature(List.of(filter("pricelessly", false, "red"))));
+        assertNotEquals(FilterFactory.signature(List.of(filter("description", false))),
+                FilterFactory.signature(List.of()));
+    }
+
+    @Test
+    public void testCompile_EquivalentFilterListsShareOnePlan() {
+        FilterPlan plan = filterFactory.compile(List.of(filter("description", true, "Case", "cover"), filter("priceRange", false, "[1,50)")));
+        FilterPlan samePlan = filterFactory.compile(List.of(filter("priceRange", false, "[1,50)"), filter("description", true, "COVER", "case")));
+        FilterPlan otherPlan = filterFactory.compile(List.of(filter("description", true, "case")));
+
+        assertSame(plan, samePlan);
+        assertNotSame(plan, otherPlan);
+    }
+
+    @Test
+    public void testCompile_PlansCachedPerFactory() {
+        List<FilterDto> filters = List.of(filter("description", false, "leather"));
+
+        assertNotSame(filterFactory.compile(filters), new FilterFactory().compile(filters));
+    }
+
+    @Test
+    public void testCompile_PlanAndsFiltersAndOrsValues() {
+        FilterPlan plan = filterFactory.compile(List.of(filter("description", true, "leather", "silicone"), filter("priceRange", false, "[10,20]")));
+
+        assertTrue(plan.test(product("Black LEATHER case", 15.0)));
+        assertTrue(plan.test(product("silicone cover", 10.0)));
+        assertFalse(plan.test(product("plastic case", 15.0)));
+        assertFalse(plan.test(product("leather case", 25.0)));
+        assertEquals(2, plan.apply(List.of(product("leather", 12.0), product("silicone", 20.0), product("wood", 12.0))).size());
+    }
+
+    @Test
+    public void testCompile_MostSelectiveFilterRunsFirst() {
+        // description (one keyword, ~10%) is checked before priceRange (~20%); a product failing it never reaches
+        // the price check, which would throw on the missing price
+        FilterPlan plan = filterFactory.compile(List.of(filter("priceRange", false, "[10,20]"), filter("description", false, "leather")));
+
+        assertFalse(plan.test(product("plastic", null)));
+    }
+
+    @Test
+    public void testCompile_UnknownKeyRejected() {
+        assertThrows(IllegalArgumentException.class, () -> filterFactory.compile(List.of(filter("colour", false, "red"))));
+    }
+
+    private static FilterDto filter(String key, boolean ignoreCase, String... values) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setIgnoreCase(ignoreCase);
+        filter.setValues(List.of(values));
+        return filter;
+    }
+
+    private static Product product(String description, Double price) {
+        Product product = new Product();
+        product.setTitle("Phone case");
+        product.setDescription(description);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceRangeFilterTest {
+
+    @Test
+    public void testParseRanges_InclusiveAndExclusiveBounds() {
+        List<PriceRange> ranges = PriceRangeFilter.parseRanges(List.of("[100,500]", "(100,500)", "[100,500)", "(100,500]"));
+
+        assertBounds(ranges.get(0), 100.0, true, 500.0, true);
+        assertBounds(ranges.get(1), 100.0, false, 500.0, false);
+        assertBounds(ranges.get(2), 100.0, true, 500.0, false);
+        assertBounds(ranges.get(3), 100.0, false, 500.0, true);
+    }
+
+    @Test
+    public void testParseRanges_OpenEndsAndWhitespace() {
+        List<PriceRange> ranges = PriceRangeFilter.parseRanges(List.of("[100,]", "[,500)", " ( 9.99 , 19.5 ] ", "(,)"));
+
+        assertBounds(ranges.get(0), 100.0, true, null, true);
+        assertBounds(ranges.get(1), null, true, 500.0, false);
+        assertBounds(ranges.get(2), 9.99, false, 19.5, true);
+        assertBounds(ranges.get(3), null, false, null, false);
+    }
+
+    @Test
+    public void testParseRanges_RejectsMalformed() {
+        for (String value : new String[]{"", "100,500", "[100;500]", "{100,500}", "[100,500", "[abc,500]", "[,", "[1,2,3]"}) {
+            assertThrows(IllegalArgumentException.class, () -> PriceRangeFilter.parseRanges(List.of(value)), value);
+        }
+        assertThrows(IllegalArgumentException.class, () -> PriceRange.parse(null));
+    }
+
+    @Test
+    public void testParseRanges_RejectsNonFiniteBounds() {
+        for (String value : new String[]{"[NaN,5)", "[1,NaN]", "(-Infinity,10]", "[0,Infinity)"}) {
+            assertThrows(IllegalArgumentException.class, () -> PriceRange.parse(value), value);
+        }
+    }
+
+    @Test
+    public void testParseRanges_RejectsRangesThatMatchNothing() {
+        for (String value : new String[]{"[500,100)", "(500,100]", "(5,5)", "[5,5)", "(5,5]"}) {
+            assertThrows(IllegalArgumentException.class, () -> PriceRange.parse(value), value);
+        }
+        assertTrue(PriceRange.parse("[5,5]").contains(5));
+    }
+
+    @Test
+    public void testContains_BoundsAtTheEdges() {
+        PriceRange inclusive = PriceRange.parse("[100,500]");
+        PriceRange exclusive = PriceRange.parse("(100,500)");
+
+        assertTrue(inclusive.contains(100));
+        assertTrue(inclusive.contains(500));
+        assertFalse(inclusive.contains(99.99));
+        assertFalse(inclusive.contains(500.01));
+        assertFalse(exclusive.contains(100));
+        assertFalse(exclusive.contains(500));
+        assertTrue(exclusive.contains(100.01));
+        assertTrue(PriceRange.parse("[,500)").contains(-1));
+        assertTrue(PriceRange.parse("(100,]").contains(Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testToPredicate_AnyRangeMatches() {
+        Predicate<Product> predicate = new PriceRangeFilter().toPredicate(List.of("[0,10)", "(100,200]"));
+
+        assertTrue(predicate.test(product(0)));
+        assertFalse(predicate.test(product(10)));
+        assertFalse(predicate.test(product(100)));
+        assertTrue(predicate.test(product(200)));
+        assertFalse(new PriceRangeFilter().toPredicate(List.of()).test(product(5)));
+    }
+
+    private static void assertBounds(PriceRange range, Double min, boolean minInclusive, Double max, boolean maxInclusive) {
+        assertEquals(min, range.getMin());
+        assertEquals(max, range.getMax());
+        if (min != null) {
+            assertEquals(minInclusive, range.isMinInclusive());
+        }
+        if (max != null) {
+            assertEquals(maxInclusive, range.isMaxInclusive());
+        }
+    }
+
+    private static Product product(double price) {
+        Product product = new Product();
+        product.setPrice(price);
+        return product;
+    }
+}
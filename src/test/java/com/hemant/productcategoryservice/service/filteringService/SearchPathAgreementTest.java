@@ -0,0 +1,279 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import com.hemant.productcategoryservice.dtos.FilterDto;
+import com.hemant.productcategoryservice.dtos.SortingCriteria;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.ParallelSearchExecutor;
+import com.hemant.productcategoryservice.service.indexingService.InvertedIndexSearchEngine;
+import com.hemant.productcategoryservice.service.sortingService.SorterFactory;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+// /search answers from the database when the text matches are few enough to push down, and in memory otherwise.
+// The same request must give the same page either way, so every filter set here goes through both.
+public class SearchPathAgreementTest {
+
+    private final List<Product> catalog = new ArrayList<>();
+    private final InvertedIndexSearchEngine searchEngine = new InvertedIndexSearchEngine();
+
+    @BeforeEach
+    public void setUp() {
+        add(7L, "Steel bottle", "Brushed Steel, keeps drinks cold", 20.0);
+        add(3L, "steel mug", "plain steel mug", 20.0);
+        add(12L, "Café press", "Glass café press", 35.5);
+        add(1L, "Cafe mug", "cafe style mug", 20.0);
+        add(9L, "Bottle brush", "for steel and glass bottles", 9.99);
+        add(4L, "Glass bottle", null, 15.0);
+        add(15L, "Water bottle", "100% recycled_plastic", 199.0);
+        add(2L, "Steel straw", "STEEL straws, set of 4", 9.99);
+        // the table has no particular order
+        Collections.shuffle(catalog, new Random(42));
+        catalog.forEach(searchEngine::index);
+    }
+
+    @Test
+    public void testCaseSensitiveDescription_SameOnBothPaths() {
+        assertSamePage("", List.of(filter("description", false, "Steel")));
+        assertSamePage("", List.of(filter("description", false, "steel", "STEEL")));
+    }
+
+    @Test
+    public void testIgnoreCaseDescription_SameOnBothPaths() {
+        assertSamePage("", List.of(filter("description", true, "STEEL")));
+        // accents are not folded in memory, so they must not be in the database either
+        assertSamePage("", List.of(filter("description", true, "CAFE")));
+    }
+
+    @Test
+    public void testLikeWildcardsAreLiterals_SameOnBothPaths() {
+        assertSamePage("", List.of(filter("description", false, "100%")));
+        assertSamePage("", List.of(filter("description", true, "d_p")));
+    }
+
+    @Test
+    public void testEmptyValueMatchesEverything_SameOnBothPaths() {
+        // including the product without a description
+        assertSamePage("", List.of(filter("description", false, "")));
+    }
+
+    @Test
+    public void testPriceRangesAndTextQuery_SameOnBothPaths() {
+        assertSamePage("", List.of(filter("priceRange", false, "[9.99,20]")));
+        assertSamePage("bottle", List.of(filter("priceRange", false, "(9.99,]", "[,5)")));
+        assertSamePage("mug", List.of(filter("description", true, "mug"), filter("priceRange", false, "[20,20]")));
+    }
+
+    @Test
+    public void testPricelessly_NotPushedDown() {
+        // MySQL prints 199.0 as "199", Java as "199.0"
+        assertFalse(SearchQueryBuilder.canTranslate(List.of(filter("pricelessly", false, "199.0"))));
+    }
+
+    private void assertSamePage(String query, List<FilterDto> filters) {
+        assertTrue(SearchQueryBuilder.canTranslate(filters));
+        for (SortingCriteria sortingCriteria : List.of(SortingCriteria.PRICE_LOW_TO_HIGH, SortingCriteria.PRICE_HIGH_TO_LOW)) {
+            List<Long> inDatabase = ids(inDatabase(query, filters, sortingCriteria));
+            List<Long> inMemory = ids(inMemory(query, filters, sortingCriteria));
+            assertEquals(inMemory, inDatabase, query + " " + describe(filters) + " " + sortingCriteria);
+        }
+    }
+
+    // What SearchService.searchInMemory does
+    private List<Product> inMemory(String query, List<FilterDto> filters, SortingCriteria sortingCriteria) {
+        ParallelSearchExecutor executor = new ParallelSearchExecutor(ForkJoinPool.commonPool(), Integer.MAX_VALUE, 4096);
+        return executor.run(searchEngine.search(query), new FilterFactory().compile(filters),
+                SorterFactory.getSortedByValue(sortingCriteria), catalog.size(), null).top();
+    }
+
+    // What SearchService.searchInDatabase asks MySQL for
+    private List<Product> inDatabase(String query, List<FilterDto> filters, SortingCriteria sortingCriteria) {
+        Specification<Product> specification = searchEngine.toSpecification(query).and(SearchQueryBuilder.fromFilters(filters));
+        MySqlEvaluator evaluator = new MySqlEvaluator();
+        java.util.function.Predicate<Product> where = evaluator.evaluate(specification);
+        List<Product> rows = new ArrayList<>(catalog.stream().filter(where).toList());
+        rows.sort(orderBy(SearchQueryBuilder.toSort(sortingCriteria)));
+        return rows;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Product> orderBy(Sort sort) {
+        Comparator<Product> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Product> byProperty = Comparator.comparing(product -> (Comparable) MySqlEvaluator.column(product, order.getProperty()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    // Evaluates a Specification against products the way MySQL would run it: LIKE under the default
+    // utf8mb4_0900_ai_ci collation ignores case and accents, under utf8mb4_bin it compares bytes, and NULL never matches
+    private static class MySqlEvaluator implements Answer<Object> {
+
+        private final Map<Object, Function<Product, Object>> expressions = new IdentityHashMap<>();
+        private final Set<Object> binaryCollated = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<Object, java.util.function.Predicate<Product>> predicates = new IdentityHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        java.util.function.Predicate<Product> evaluate(Specification<Product> specification) {
+            Root<Product> root = mock(Root.class, withSettings().defaultAnswer(this));
+            HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class, withSettings().defaultAnswer(this));
+            return predicates.get(specification.toPredicate(root, null, cb));
+        }
+
+        static Object column(Product product, String name) {
+            return switch (name) {
+                case "id" -> product.getId();
+                case "title" -> product.getTitle();
+                case "description" -> product.getDescription();
+                case "price" -> product.getPrice();
+                default -> throw new UnsupportedOperationException("column " + name);
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object answer(InvocationOnMock invocation) {
+            Object[] args = invocation.getArguments();
+            Class<?> returnType = invocation.getMethod().getReturnType();
+            return switch (invocation.getMethod().getName()) {
+                case "get" -> expression(returnType, product -> column(product, (String) args[0]));
+                case "lower" -> expression(returnType, product -> {
+                    Object value = expressions.get(args[0]).apply(product);
+                    return value == null ? null : ((String) value).toLowerCase(Locale.ROOT);
+                });
+                case "collate" -> {
+                    assertEquals("utf8mb4_bin", args[1]);
+                    Object collated = expression(returnType, expressions.get(args[0]));
+                    binaryCollated.add(collated);
+                    yield collated;
+                }
+                case "like" -> {
+                    Pattern pattern = likePattern((String) args[1], (Character) args[2], binaryCollated.contains(args[0]));
+                    Function<Product, Object> value = expressions.get(args[0]);
+                    yield predicate(returnType, product -> {
+                        Object text = value.apply(product);
+                        return text != null && pattern.matcher(binaryCollated.contains(args[0]) ? (String) text : fold((String) text)).matches();
+                    });
+                }
+                case "in" -> {
+                    Collection<Object> values = (Collection<Object>) args[0];
+                    Function<Product, Object> value = expressions.get(invocation.getMock());
+                    yield predicate(returnType, product -> values.contains(value.apply(product)));
+                }
+                case "greaterThan", "greaterThanOrEqualTo", "lessThan", "lessThanOrEqualTo" -> {
+                    Function<Product, Object> value = expressions.get(args[0]);
+                    double bound = ((Number) args[1]).doubleValue();
+                    String name = invocation.getMethod().getName();
+                    yield predicate(returnType, product -> {
+                        Object price = value.apply(product);
+                        if (price == null) {
+                            return false;
+                        }
+                        int compare = Double.compare(((Number) price).doubleValue(), bound);
+                        return switch (name) {
+                            case "greaterThan" -> compare > 0;
+                            case "greaterThanOrEqualTo" -> compare >= 0;
+                            case "lessThan" -> compare < 0;
+                            default -> compare <= 0;
+                        };
+                    });
+                }
+                case "conjunction" -> predicate(returnType, product -> true);
+                case "disjunction" -> predicate(returnType, product -> false);
+                case "and", "or" -> {
+                    List<java.util.function.Predicate<Product>> parts = new ArrayList<>();
+                    for (Object arg : args) {
+                        for (Object part : arg instanceof Object[] array ? array : new Object[] {arg}) {
+                            parts.add(predicates.get(part));
+                        }
+                    }
+                    boolean and = invocation.getMethod().getName().equals("and");
+                    yield predicate(returnType, product -> and
+                            ? parts.stream().allMatch(part -> part.test(product))
+                            : parts.stream().anyMatch(part -> part.test(product)));
+                }
+                case "hashCode" -> System.identityHashCode(invocation.getMock());
+                case "equals" -> invocation.getMock() == args[0];
+                case "toString" -> "mock";
+                default -> throw new UnsupportedOperationException(invocation.getMethod().toString());
+            };
+        }
+
+        private Object expression(Class<?> type, Function<Product, Object> value) {
+            Object expression = mock(type, withSettings().defaultAnswer(this));
+            expressions.put(expression, value);
+            return expression;
+        }
+
+        private Object predicate(Class<?> type, java.util.function.Predicate<Product> test) {
+            Class<?> predicateType = Predicate.class.isAssignableFrom(type) ? type : Predicate.class;
+            Object predicate = mock(predicateType, withSettings().defaultAnswer(this));
+            predicates.put(predicate, test);
+            return predicate;
+        }
+
+        private static Pattern likePattern(String like, char escape, boolean binary) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < like.length(); i++) {
+                char c = like.charAt(i);
+                if (c == escape && i + 1 < like.length()) {
+                    regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+                } else if (c == '%') {
+                    regex.append(".*");
+                } else if (c == '_') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(binary ? String.valueOf(c) : fold(String.valueOf(c))));
+                }
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+
+        // What the accent- and case-insensitive default collation treats as equal
+        private static String fold(String text) {
+            return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private void add(long id, String title, String description, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setDescription(description);
+        product.setPrice(price);
+        catalog.add(product);
+    }
+
+    private static FilterDto filter(String key, boolean ignoreCase, String... values) {
+        FilterDto filter = new FilterDto();
+        filter.setKey(key);
+        filter.setIgnoreCase(ignoreCase);
+        filter.setValues(List.of(values));
+        return filter;
+    }
+
+    private static String describe(List<FilterDto> filters) {
+        return filters.stream().map(filter -> filter.getKey() + (filter.isIgnoreCase() ? "~" : "=") + filter.getValues()).toList().toString();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.hemant.productcategoryservice.service.filteringService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchQueryBuilderTest {
+
+    @Test
+    public void testToCategorySort_FieldOnlyIsAscendingWithIdTieBreaker() {
+        Sort sort = SearchQueryBuilder.toCategorySort("price");
+
+        assertEquals(List.of(Sort.Order.asc("price"), Sort.Order.asc("id")), sort.toList());
+    }
+
+    @Test
+    public void testToCategorySort_DescendingAppliesToTieBreakerToo() {
+        Sort sort = SearchQueryBuilder.toCategorySort("createdAt,desc");
+
+        assertEquals(List.of(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), sort.toList());
+    }
+
+    @Test
+    public void testToCategorySort_DirectionIsCaseInsensitiveAndTrimmed() {
+        Sort sort = SearchQueryBuilder.toCategorySort(" title , DESC ");
+
+        assertEquals(List.of(Sort.Order.desc("title"), Sort.Order.desc("id")), sort.toList());
+    }
+
+    @Test
+    public void testToCategorySort_IdHasNoTieBreaker() {
+        assertEquals(List.of(Sort.Order.asc("id")), SearchQueryBuilder.toCategorySort("id").toList());
+        assertEquals(List.of(Sort.Order.desc("id")), SearchQueryBuilder.toCategorySort("id,desc").toList());
+    }
+
+    @Test
+    public void testToCategorySort_UnknownFieldRejected() {
+        // description has no (category_id, field) index
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SearchQueryBuilder.toCategorySort("description"));
+        assertTrue(e.getMessage().startsWith("Unsupported sorting attribute"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQueryBuilder.toCategorySort("category.title"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQueryBuilder.toCategorySort(""));
+        assertThrows(IllegalArgumentException.class, () -> SearchQueryBuilder.toCategorySort(null));
+    }
+
+    @Test
+    public void testToCategorySort_BadDirectionRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SearchQueryBuilder.toCategorySort("price,sideways"));
+        assertTrue(e.getMessage().startsWith("Unsupported sort direction"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQueryBuilder.toCategorySort("price,asc,desc"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    public void testMightContain_NoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (long key = 1; key <= KEYS; key++) {
+            filter.put(key * 7);
+        }
+
+        for (long key = 1; key <= KEYS; key++) {
+            assertTrue(filter.mightContain(key * 7), "lost key " + key * 7);
+        }
+    }
+
+    @Test
+    public void testMightContain_FalsePositiveRateNearTarget() {
+        for (double target : new double[]{0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(KEYS, target);
+            for (long key = 1; key <= KEYS; key++) {
+                filter.put(key);
+            }
+
+            int falsePositives = 0;
+            int probes = 200_000;
+            for (long key = KEYS + 1; key <= KEYS + probes; key++) {
+                if (filter.mightContain(key)) {
+                    falsePositives++;
+                }
+            }
+            double rate = (double) falsePositives / probes;
+            assertTrue(rate < target * 1.5, "false-positive rate " + rate + " for target " + target);
+            assertTrue(rate > target / 3, "false-positive rate " + rate + " suspiciously low for target " + target);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.filteringService.PriceRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryPriceIndexTest {
+
+    private CategoryPriceIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new CategoryPriceIndex();
+        index.indexAll(new ArrayList<>(List.of(
+                product(1L, 1L, 30.0),
+                product(2L, 1L, 10.0),
+                product(3L, 1L, 20.0),
+                product(4L, 2L, 15.0),
+                product(5L, 1L, 20.0))));
+    }
+
+    @Test
+    public void testPage_CategoryOrderedByPriceThenId() {
+        assertArrayEquals(new long[] {2L, 3L, 5L, 1L}, index.page(1L, false, 0, 10));
+        assertArrayEquals(new long[] {1L, 5L}, index.page(1L, true, 0, 2));
+        assertArrayEquals(new long[] {3L}, index.page(1L, true, 2, 3));
+        assertEquals(4, index.size(1L));
+        assertEquals(0, index.size(99L));
+    }
+
+    @Test
+    public void testPriceRange_WholeCatalogHonoursBounds() {
+        assertArrayEquals(new long[] {4L, 3L, 5L}, index.priceRange(PriceRange.parse("[15,20]")));
+        assertArrayEquals(new long[] {3L, 5L}, index.priceRange(PriceRange.parse("(15,30)")));
+        assertArrayEquals(new long[] {2L, 4L}, index.priceRange(PriceRange.parse("[,20)")));
+        assertArrayEquals(new long[] {1L}, index.priceRange(PriceRange.parse("(20,]")));
+    }
+
+    @Test
+    public void testPriceRange_MergesCategoriesByPriceThenId() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (long id = 10; id < 2010; id++) {
+            // few distinct prices, so equal prices across categories are common
+            products.add(product(id, 1 + random.nextInt(50), random.nextInt(40)));
+        }
+        index.indexAll(new ArrayList<>(products));
+        products.addAll(List.of(product(1L, 1L, 30.0), product(2L, 1L, 10.0), product(3L, 1L, 20.0),
+                product(4L, 2L, 15.0), product(5L, 1L, 20.0)));
+        products.sort(Comparator.comparingDouble(Product::getPrice).thenComparingLong(Product::getId));
+
+        for (String value : List.of("[,]", "[10,20]", "(10,20)", "[,0]", "(39,]", "[15.5,16)")) {
+            PriceRange range = PriceRange.parse(value);
+            long[] expected = products.stream().filter(product -> range.contains(product.getPrice())).mapToLong(Product::getId).toArray();
+            assertArrayEquals(expected, index.priceRange(range), value);
+        }
+    }
+
+    @Test
+    public void testIndex_MovedProductLeavesItsOldCategoryAndPrice() {
+        index.index(product(3L, 2L, 50.0));
+
+        assertArrayEquals(new long[] {2L, 5L, 1L}, index.page(1L, false, 0, 10));
+        assertArrayEquals(new long[] {4L, 3L}, index.page(2L, false, 0, 10));
+        assertArrayEquals(new long[] {3L}, index.priceRange(PriceRange.parse("[40,]")));
+    }
+
+    @Test
+    public void testRemove_EmptiesCategory() {
+        index.remove(4L);
+
+        assertEquals(0, index.size(2L));
+        assertArrayEquals(new long[] {2L, 3L, 5L, 1L}, index.priceRange(PriceRange.parse("[,]")));
+    }
+
+    @Test
+    public void testIndex_SkipsProductsWithoutPriceOrCategory() {
+        Product noPrice = product(6L, 1L, 0.0);
+        noPrice.setPrice(null);
+        Product noCategory = product(7L, 1L, 5.0);
+        noCategory.setCategory(null);
+
+        index.index(noPrice);
+        index.index(noCategory);
+
+        assertEquals(4, index.size(1L));
+        assertEquals(5, index.priceRange(PriceRange.parse("[,]")).length);
+    }
+
+    private static Product product(long id, long categoryId, double price) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        product.setCategory(category);
+        return product;
+    }
+}
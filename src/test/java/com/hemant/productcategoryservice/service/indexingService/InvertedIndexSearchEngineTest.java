@@ -0,0 +1,124 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InvertedIndexSearchEngineTest {
+
+    private InvertedIndexSearchEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new InvertedIndexSearchEngine();
+        engine.index(product(4L, "Blue T-Shirt", "cotton, slim fit"));
+        engine.index(product(2L, "Tshirt pack", "three plain shirts"));
+        engine.index(product(7L, "Steel bottle", "keeps drinks cold"));
+        engine.index(product(1L, "Water flask", "Brushed STEEL bottle"));
+        engine.index(product(9L, "Glass bottle", null));
+    }
+
+    @Test
+    public void testSearch_MatchesWholeTokensIgnoringCase() {
+        assertEquals(List.of(4L), ids(engine.search("shirt")));
+        assertEquals(List.of(4L), ids(engine.search("SHIRT")));
+        // substrings of a token are not matches: "shirt" is not in "tshirt" or "shirts"
+        assertEquals(List.of(2L), ids(engine.search("tshirt")));
+        assertEquals(List.of(), ids(engine.search("shir")));
+    }
+
+    @Test
+    public void testSearch_DescriptionOnlyMatchesIncluded() {
+        assertEquals(List.of(1L, 7L), ids(engine.search("steel")));
+        assertEquals(List.of(2L), ids(engine.search("plain")));
+    }
+
+    @Test
+    public void testSearch_EveryTokenMustMatch() {
+        assertEquals(List.of(1L, 7L), ids(engine.search("steel bottle")));
+        assertEquals(List.of(1L, 7L), ids(engine.search("bottle, steel!")));
+        assertEquals(List.of(1L, 7L, 9L), ids(engine.search("bottle")));
+        assertEquals(List.of(), ids(engine.search("steel mug")));
+    }
+
+    @Test
+    public void testSearch_BlankQueryReturnsEverythingInIdOrder() {
+        assertEquals(List.of(1L, 2L, 4L, 7L, 9L), ids(engine.search("")));
+        assertEquals(List.of(1L, 2L, 4L, 7L, 9L), ids(engine.search(" - ")));
+    }
+
+    @Test
+    public void testIndex_UpdateAndRemoveDropOldTokens() {
+        engine.index(product(7L, "Steel mug", "keeps drinks hot"));
+        engine.remove(9L);
+
+        assertEquals(List.of(1L), ids(engine.search("bottle")));
+        assertEquals(List.of(7L), ids(engine.search("steel mug")));
+        assertEquals(List.of(), ids(engine.search("cold")));
+        assertEquals(List.of(), ids(engine.search("glass")));
+    }
+
+    @Test
+    public void testFindAllById_KeepsOrderAndSkipsUnknownIds() {
+        assertEquals(List.of(9L, 1L), ids(engine.findAllById(new long[] {9L, 42L, 1L})));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testToSpecification_PushesDownIdsUpToTheCutoff() {
+        for (long id = 100; id < 1100; id++) {
+            engine.index(product(id, "Lamp " + id, "common"));
+        }
+        engine.index(product(1100L, "Lamp", "rare"));
+
+        // 1000 matches still go to the database as an id list
+        Root<Product> root = mock(Root.class);
+        Path<Object> idPath = mock(Path.class);
+        when(root.get("id")).thenReturn(idPath);
+        engine.toSpecification("common").toPredicate(root, null, mock(CriteriaBuilder.class));
+        verify(idPath).in(LongStream.range(100, 1100).boxed().toList());
+
+        // one more and the search stays in memory
+        assertNull(engine.toSpecification("lamp"));
+    }
+
+    @Test
+    public void testToSpecification_NoMatchesOrBlankQuery() {
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+        Specification<Product> none = engine.toSpecification("nothing");
+        none.toPredicate(mock(Root.class), null, cb);
+        verify(cb).disjunction();
+
+        Specification<Product> all = engine.toSpecification("  ");
+        all.toPredicate(mock(Root.class), null, cb);
+        verify(cb).conjunction();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        List<Long> ids = new ArrayList<>();
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    private static Product product(long id, String title, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setDescription(description);
+        return product;
+    }
+}
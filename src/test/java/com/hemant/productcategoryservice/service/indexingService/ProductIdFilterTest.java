@@ -0,0 +1,113 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductIdFilterTest {
+
+    private ProductIdFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new ProductIdFilter(10_000, 0.01, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testMightExist_EverythingBeforeLoad() {
+        assertTrue(filter.mightExist(123L));
+    }
+
+    @Test
+    public void testMightExist_UnknownIdBelowHighestIsRejected() {
+        load(1L, 2L, 3L, 5000L);
+
+        assertTrue(filter.mightExist(2L));
+        int rejected = 0;
+        for (long id = 10; id < 1010; id++) {
+            if (!filter.mightExist(id)) {
+                rejected++;
+            }
+        }
+        // all but the Bloom filter's false positives
+        assertTrue(rejected > 950, "rejected " + rejected);
+    }
+
+    @Test
+    public void testMightExist_IdAboveHighestLetThrough() {
+        load(1L, 2L, 3L);
+
+        // may be a create on another node whose announcement hasn't arrived yet
+        assertTrue(filter.mightExist(4L));
+        assertTrue(filter.mightExist(1_000_000L));
+    }
+
+    @Test
+    public void testIndex_AnnouncedCreateIsKnown() {
+        load(1L, 10L);
+
+        filter.index(product(11L));
+
+        assertTrue(filter.mightExist(11L));
+    }
+
+    @Test
+    public void testRecordMissing_OnlyBelowHighestKnownId() {
+        load(10L);
+        filter.index(product(5L));
+
+        filter.recordMissing(5L);
+        filter.recordMissing(11L);
+
+        assertFalse(filter.mightExist(5L));
+        // may belong to a create still to come, so it is not remembered as missing
+        assertTrue(filter.mightExist(11L));
+    }
+
+    @Test
+    public void testIndex_ClearsNegativeCache() {
+        load(10L);
+        filter.recordMissing(5L);
+
+        filter.index(product(5L));
+
+        assertTrue(filter.mightExist(5L));
+    }
+
+    @Test
+    public void testRemove_DeletedIdRejectedByNegativeCache() {
+        load(1L, 2L, 3L);
+
+        filter.remove(2L);
+
+        assertFalse(filter.mightExist(2L));
+    }
+
+    @Test
+    public void testLoaded_RebuildDropsDeletedIds() {
+        load(1L, 2L, 3L);
+        // 2 was deleted on another node before the next pass
+        load(1L, 3L);
+
+        assertTrue(filter.mightExist(1L));
+        assertFalse(filter.mightExist(2L));
+    }
+
+    private void load(Long... productIds) {
+        filter.loadStarted();
+        for (Long productId : productIds) {
+            filter.index(product(productId));
+        }
+        filter.loaded();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
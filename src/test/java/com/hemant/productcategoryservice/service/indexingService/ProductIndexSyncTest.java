@@ -0,0 +1,216 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductIndexSyncTest {
+
+    // Stands in for the real indexes: product id -> title last indexed
+    private static class RecordingIndex implements ProductIndex {
+        final Map<Long, String> titles = new ConcurrentHashMap<>();
+        int loadedCalls;
+
+        @Override
+        public void index(Product product) {
+            titles.put(product.getId(), product.getTitle());
+        }
+
+        @Override
+        public void remove(Long productId) {
+            titles.remove(productId);
+        }
+
+        @Override
+        public void loaded() {
+            loadedCalls++;
+        }
+    }
+
+    private final TreeMap<Long, Product> table = new TreeMap<>();
+    private final List<Long> batchStarts = new ArrayList<>();
+    private ProductRepository productRepository;
+    private StringRedisTemplate stringRedisTemplate;
+    private RecordingIndex index;
+    private ProductIndexSync sync;
+    private Runnable beforeFirstBatchReturns = () -> {};
+
+    @BeforeEach
+    public void setUp() {
+        productRepository = mock(ProductRepository.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        index = new RecordingIndex();
+        sync = new ProductIndexSync(productRepository, List.of(index), stringRedisTemplate);
+        when(productRepository.findBatchAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            List<Product> batch = table.tailMap(afterId, false).values().stream()
+                    .limit(pageable.getPageSize())
+                    .map(product -> product(product.getId(), product.getTitle()))
+                    .toList();
+            if (batchStarts.isEmpty()) {
+                beforeFirstBatchReturns.run();
+            }
+            batchStarts.add(afterId);
+            return batch;
+        });
+    }
+
+    @Test
+    public void testLoadIndexes_ReadsKeysetBatches() {
+        for (long id = 1; id <= 2500; id++) {
+            table.put(id, product(id, "Product " + id));
+        }
+
+        sync.loadIndexes();
+
+        assertEquals(2500, index.titles.size());
+        assertEquals(List.of(0L, 1000L, 2000L), batchStarts);
+        assertEquals(1, index.loadedCalls);
+    }
+
+    @Test
+    public void testReconcile_DropsDeletedAndPicksUpMissedProducts() {
+        for (long id = 1; id <= 1500; id++) {
+            table.put(id, product(id, "Product " + id));
+        }
+        sync.loadIndexes();
+        // changes made on another node whose announcements were lost
+        table.remove(7L);
+        table.remove(1500L);
+        table.put(1200L, product(1200L, "Renamed"));
+        table.put(1501L, product(1501L, "New"));
+
+        sync.reconcile();
+
+        assertFalse(index.titles.containsKey(7L));
+        assertFalse(index.titles.containsKey(1500L));
+        assertEquals("Renamed", index.titles.get(1200L));
+        assertEquals("New", index.titles.get(1501L));
+        assertEquals(1499, index.titles.size());
+    }
+
+    @Test
+    public void testReconcile_SkippedBeforeFirstLoad() {
+        table.put(1L, product(1L, "Product 1"));
+
+        sync.reconcile();
+
+        assertTrue(index.titles.isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testLoadIndexes_LiveWriteDuringPassWins() {
+        table.put(1L, product(1L, "Old title"));
+        table.put(2L, product(2L, "Deleted meanwhile"));
+        // the batch below was read before these writes but is applied after them
+        beforeFirstBatchReturns = () -> {
+            sync.productChanged(product(1L, "New title"));
+            sync.productRemoved(2L);
+        };
+
+        sync.loadIndexes();
+
+        assertEquals("New title", index.titles.get(1L));
+        assertFalse(index.titles.containsKey(2L));
+    }
+
+    @Test
+    public void testLocalChanges_AreAnnounced() {
+        sync.productChanged(product(5L, "Phone"));
+        sync.productRemoved(6L);
+
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate, times(2)).convertAndSend(eq(ProductIndexSync.CHANGES_CHANNEL), messages.capture());
+        assertTrue(messages.getAllValues().get(0).endsWith(" U 5"));
+        assertTrue(messages.getAllValues().get(1).endsWith(" D 6"));
+    }
+
+    @Test
+    public void testOnMessage_AppliesOtherNodesChanges() {
+        when(productRepository.findById(5L)).thenReturn(Optional.of(product(5L, "Phone")));
+        index.titles.put(6L, "Laptop");
+
+        sync.onMessage(message("other-node U 5"), null);
+        sync.onMessage(message("other-node D 6"), null);
+
+        assertEquals("Phone", index.titles.get(5L));
+        assertFalse(index.titles.containsKey(6L));
+    }
+
+    @Test
+    public void testOnMessage_UpdateOfProductGoneSinceRemovesIt() {
+        when(productRepository.findById(5L)).thenReturn(Optional.empty());
+        index.titles.put(5L, "Phone");
+
+        sync.onMessage(message("other-node U 5"), null);
+
+        assertFalse(index.titles.containsKey(5L));
+    }
+
+    @Test
+    public void testOnMessage_IgnoresOwnAnnouncements() {
+        sync.productRemoved(6L);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(ProductIndexSync.CHANGES_CHANNEL), published.capture());
+        index.titles.put(6L, "Indexed again since");
+
+        sync.onMessage(message(published.getValue()), null);
+
+        assertEquals("Indexed again since", index.titles.get(6L));
+    }
+
+    @Test
+    public void testCategoryChanged_ReindexesItsProductsHereAndElsewhere() {
+        index.titles.put(1L, "Kettle");
+        when(productRepository.findCategoryBatchAfter(eq(3L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Kettle (Home)"), product(2L, "Toaster (Home)")));
+
+        sync.categoryChanged(3L);
+
+        assertEquals("Kettle (Home)", index.titles.get(1L));
+        assertEquals("Toaster (Home)", index.titles.get(2L));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(ProductIndexSync.CHANGES_CHANNEL), published.capture());
+        assertTrue(published.getValue().endsWith(" C 3"));
+    }
+
+    @Test
+    public void testOnMessage_CategoryChangeReindexesItsProducts() {
+        when(productRepository.findCategoryBatchAfter(eq(3L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Kettle (Home)")));
+
+        sync.onMessage(message("other-node C 3"), null);
+
+        assertEquals("Kettle (Home)", index.titles.get(1L));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(ProductIndexSync.CHANGES_CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(long id, String title) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        return product;
+    }
+}
@@ -0,0 +1,116 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelevanceIndexTest {
+
+    private static final String[] WORDS = {"steel", "bottle", "glass", "mug", "lamp", "desk", "cable", "usb", "red", "blue"};
+
+    private final RelevanceIndex index = new RelevanceIndex();
+
+    @Test
+    public void testRank_ThresholdAndScoringAllAgree() {
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Product product = product(id, words(random, 1 + random.nextInt(4)), words(random, random.nextInt(12)));
+            catalog.add(product);
+            index.index(product);
+        }
+
+        for (int round = 0; round < 50; round++) {
+            List<Product> candidates = new ArrayList<>(catalog);
+            Collections.shuffle(candidates, random);
+            candidates = candidates.subList(0, 1 + random.nextInt(candidates.size()));
+            List<String> terms = Tokenizer.tokenize(words(random, 1 + random.nextInt(3)));
+            int limit = 1 + random.nextInt(candidates.size());
+
+            assertEquals(ids(index.rankByScoringAll(terms, candidates, limit)),
+                    ids(index.rankByThreshold(terms, candidates, limit)), terms + " limit " + limit);
+        }
+    }
+
+    @Test
+    public void testRank_TitleMatchOutranksDescriptionMatch() {
+        Product inDescription = product(1L, "Reading light", "a small lamp");
+        Product inTitle = product(2L, "Small lamp", "a reading light");
+        index.index(inDescription);
+        index.index(inTitle);
+        index.index(product(3L, "Desk", "oak desk"));
+
+        assertEquals(List.of(2L, 1L), ids(index.rank("lamp", List.of(inDescription, inTitle), 2)));
+    }
+
+    @Test
+    public void testRank_UnmatchedCandidatesPaddedInInputOrder() {
+        List<Product> candidates = new ArrayList<>();
+        candidates.add(product(5L, "Desk", "oak"));
+        candidates.add(product(3L, "Chair", "oak"));
+        candidates.add(product(9L, "Steel lamp", "bright"));
+        candidates.add(product(1L, "Shelf", "pine"));
+        candidates.forEach(index::index);
+        List<String> terms = List.of("steel");
+
+        assertEquals(List.of(9L, 5L, 3L, 1L), ids(index.rankByThreshold(terms, candidates, 4)));
+        assertEquals(List.of(9L, 5L, 3L, 1L), ids(index.rankByScoringAll(terms, candidates, 4)));
+        assertEquals(List.of(9L, 5L), ids(index.rank("steel", candidates, 2)));
+    }
+
+    @Test
+    public void testRank_RemovedAndReindexedProducts() {
+        Product lamp = product(1L, "Steel lamp", "desk lamp");
+        Product bottle = product(2L, "Steel bottle", "keeps cold");
+        index.index(lamp);
+        index.index(bottle);
+        List<Product> candidates = List.of(lamp, bottle);
+        assertEquals(List.of(1L, 2L), ids(index.rank("lamp steel", candidates, 2)));
+
+        index.remove(1L);
+        // a removed product scores nothing and falls behind in input order
+        assertEquals(List.of(2L, 1L), ids(index.rankByThreshold(List.of("lamp", "steel"), candidates, 2)));
+        assertEquals(List.of(2L, 1L), ids(index.rankByScoringAll(List.of("lamp", "steel"), candidates, 2)));
+
+        // re-indexed under a new title, only the new terms count
+        Product renamed = product(1L, "Glass vase", "no lamp here");
+        index.index(renamed);
+        assertEquals(List.of(2L, 1L), ids(index.rank("steel", List.of(renamed, bottle), 2)));
+        assertEquals(List.of(1L, 2L), ids(index.rank("vase", List.of(bottle, renamed), 2)));
+    }
+
+    @Test
+    public void testRank_EmptyQueryKeepsCandidateOrder() {
+        List<Product> candidates = List.of(product(3L, "Lamp", null), product(1L, "Desk", null));
+        candidates.forEach(index::index);
+
+        assertEquals(List.of(3L), ids(index.rank("", candidates, 1)));
+        assertTrue(index.rank("lamp", candidates, 0).isEmpty());
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static Product product(long id, String title, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setDescription(description);
+        return product;
+    }
+}
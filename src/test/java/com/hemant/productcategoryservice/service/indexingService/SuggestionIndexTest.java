@@ -0,0 +1,134 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.dtos.SuggestionDto;
+import com.hemant.productcategoryservice.models.Category;
+import com.hemant.productcategoryservice.models.Product;
+import com.hemant.productcategoryservice.service.cachingService.ProductAccessRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SuggestionIndexTest {
+
+    private ProductAccessRecorder productAccessRecorder;
+    private SuggestionIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        productAccessRecorder = mock(ProductAccessRecorder.class);
+        index = new SuggestionIndex(productAccessRecorder);
+    }
+
+    @Test
+    public void testSuggest_RanksProductsByReads() {
+        Category phones = category(1L, "Phones");
+        index.index(product(1L, "Pixel 9", phones));
+        index.index(product(2L, "Pixel 8", phones));
+        index.index(product(3L, "Pixel 7", phones));
+        when(productAccessRecorder.readCounts()).thenReturn(Map.of(3L, 50L, 2L, 5L));
+
+        index.refreshPopularity();
+
+        assertEquals(List.of("Pixel 7", "Pixel 8", "Pixel 9"), texts(index.suggest("pix", 10)));
+        assertEquals(51, index.suggest("pixel 7", 1).get(0).getWeight());
+    }
+
+    @Test
+    public void testSuggest_CategoryWeighsItsAverageProduct() {
+        Category phones = category(1L, "Phones");
+        index.index(product(1L, "Phone case", phones));
+        for (long id = 2; id <= 10; id++) {
+            index.index(product(id, "Cheap phone " + id, phones));
+        }
+        when(productAccessRecorder.readCounts()).thenReturn(Map.of(1L, 100L));
+
+        index.refreshPopularity();
+
+        // 10 products with 100 reads between them: 1 + 100 / 10
+        List<SuggestionDto> suggestions = index.suggest("phone", 10);
+        assertEquals("Phone case", suggestions.get(0).getText());
+        assertEquals("Phones", suggestions.get(1).getText());
+        assertEquals(11, suggestions.get(1).getWeight());
+    }
+
+    @Test
+    public void testRefreshPopularity_DroppedCountsFallBack() {
+        index.index(product(1L, "Laptop", null));
+        when(productAccessRecorder.readCounts()).thenReturn(Map.of(1L, 9L)).thenReturn(Map.of());
+
+        index.refreshPopularity();
+        assertEquals(10, index.suggest("lap", 1).get(0).getWeight());
+        index.refreshPopularity();
+        assertEquals(1, index.suggest("lap", 1).get(0).getWeight());
+    }
+
+    @Test
+    public void testRefreshPopularity_RedisDownKeepsWeights() {
+        index.index(product(1L, "Laptop", null));
+        when(productAccessRecorder.readCounts()).thenReturn(Map.of(1L, 9L)).thenThrow(new IllegalStateException("down"));
+
+        index.refreshPopularity();
+        index.refreshPopularity();
+
+        assertEquals(10, index.suggest("lap", 1).get(0).getWeight());
+    }
+
+    @Test
+    public void testIndex_ReadsCarryOverToReindexedProduct() {
+        index.index(product(1L, "Old title", null));
+        index.applyReadCounts(Map.of(1L, 4L));
+
+        index.index(product(1L, "New title", null));
+
+        assertTrue(index.suggest("old", 10).isEmpty());
+        assertEquals(5, index.suggest("new", 1).get(0).getWeight());
+    }
+
+    @Test
+    public void testIndex_CategoryRenameMovesTheWeight() {
+        index.index(product(1L, "Kettle", category(1L, "Kitchen")));
+        index.index(product(2L, "Toaster", category(1L, "Kitchen")));
+
+        index.index(product(1L, "Kettle", category(1L, "Home")));
+        assertEquals(List.of("Kitchen"), texts(index.suggest("kit", 10)));
+        index.index(product(2L, "Toaster", category(1L, "Home")));
+
+        assertTrue(index.suggest("kit", 10).isEmpty());
+        assertEquals(List.of("Home"), texts(index.suggest("ho", 10)));
+    }
+
+    @Test
+    public void testRemove_DropsTitlesNoLongerCarried() {
+        Category phones = category(1L, "Phones");
+        index.index(product(1L, "Pixel", phones));
+        index.applyReadCounts(Map.of(1L, 3L));
+
+        index.remove(1L);
+
+        assertTrue(index.suggest("p", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::getText).toList();
+    }
+
+    private static Category category(long id, String title) {
+        Category category = new Category();
+        category.setId(id);
+        category.setTitle(title);
+        return category;
+    }
+
+    private static Product product(long id, String title, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setCategory(category);
+        return product;
+    }
+}
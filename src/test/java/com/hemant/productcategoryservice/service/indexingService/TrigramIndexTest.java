@@ -0,0 +1,99 @@
+package com.hemant.productcategoryservice.service.indexingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TrigramIndex();
+        index.index(product(1L, "Mechanical keyboard"));
+        index.index(product(2L, "Desk lamp"));
+        index.index(product(3L, "USB tv stick"));
+        index.index(product(4L, "Wireless keyboard and mouse"));
+    }
+
+    @Test
+    public void testSearch_OneTypoInShortAndLongTerms() {
+        assertArrayEquals(new long[] {2L}, search("lamb"));
+        assertArrayEquals(new long[] {1L, 4L}, search("keybord"));
+        assertArrayEquals(new long[] {4L}, search("wireles mouse"));
+    }
+
+    @Test
+    public void testSearch_TwoTyposOnlyInLongTerms() {
+        assertArrayEquals(new long[] {1L, 4L}, search("kayboarf"));
+        assertArrayEquals(new long[] {1L}, search("mechanicl kyboard"));
+        // three edits
+        assertArrayEquals(new long[0], search("kaybaarf"));
+        // two edits on a term of five characters or fewer
+        assertArrayEquals(new long[0], search("lomb"));
+    }
+
+    @Test
+    public void testSearch_ShortTermsMatchExactly() {
+        assertArrayEquals(new long[] {3L}, search("tv"));
+        assertArrayEquals(new long[0], search("tx"));
+        assertArrayEquals(new long[] {3L}, search("usb"));
+    }
+
+    @Test
+    public void testSearch_EveryQueryTermMustMatch() {
+        assertArrayEquals(new long[0], search("keyboard lamp"));
+        assertArrayEquals(new long[0], search(""));
+    }
+
+    @Test
+    public void testSearch_TooCommonTrigramsSkippedStillMatch() {
+        // more than MAX_TERMS_PER_TRIGRAM terms starting with "ta", so "$$t" and "$ta" are skipped
+        for (long id = 1; id <= 5001; id++) {
+            index.index(product(100L + id, String.format("ta%04d", id)));
+        }
+        index.index(product(10L, "Oak table"));
+
+        // "tabke" shares only "tab" with "table" once the common trigrams are skipped
+        assertArrayEquals(new long[] {10L}, search("tabke"));
+        assertArrayEquals(new long[] {10L}, search("table"));
+    }
+
+    @Test
+    public void testRemove_DropsPostings() {
+        index.remove(1L);
+
+        assertArrayEquals(new long[] {4L}, search("keyboard"));
+        assertArrayEquals(new long[0], search("mechanical"));
+        assertArrayEquals(new long[0], search("mechanicl"));
+
+        index.remove(4L);
+        assertArrayEquals(new long[0], search("keybord"));
+    }
+
+    @Test
+    public void testIndex_RenamedProductLosesOldTerms() {
+        index.index(product(2L, "Floor lantern"));
+
+        assertArrayEquals(new long[0], search("lamp"));
+        assertArrayEquals(new long[] {2L}, search("lanter"));
+    }
+
+    private long[] search(String query) {
+        long[] ids = index.search(query);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static Product product(long id, String title) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        return product;
+    }
+}
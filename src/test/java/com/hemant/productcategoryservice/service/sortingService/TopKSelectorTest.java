@@ -0,0 +1,78 @@
+package com.hemant.productcategoryservice.service.sortingService;
+
+import com.hemant.productcategoryservice.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKSelectorTest {
+
+    @Test
+    public void testSelectRange_MatchesStableFullSort() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            // few distinct prices, so most keys tie
+            List<Product> products = products(random, random.nextInt(60), 1 + random.nextInt(8));
+            boolean descending = random.nextBoolean();
+            int from = random.nextInt(70);
+            int to = from + random.nextInt(30);
+
+            List<Product> expected = fullSort(products, descending);
+            expected = expected.subList(Math.min(from, expected.size()), Math.min(to, expected.size()));
+
+            List<Product> selected = TopKSelector.selectRange(products, TopKSelector.prices(products, descending), from, to);
+            assertEquals(ids(expected), ids(selected), "from " + from + " to " + to + " descending " + descending);
+        }
+    }
+
+    @Test
+    public void testSelectRange_TiesKeepInputOrder() {
+        List<Product> products = List.of(product(1, 5.0), product(2, 3.0), product(3, 5.0), product(4, 3.0), product(5, 5.0));
+
+        assertEquals(List.of(2L, 4L, 1L, 3L, 5L), ids(TopKSelector.selectRange(products, TopKSelector.prices(products, false), 0, 5)));
+        assertEquals(List.of(1L, 3L, 5L, 2L, 4L), ids(TopKSelector.selectRange(products, TopKSelector.prices(products, true), 0, 5)));
+        assertEquals(List.of(3L, 5L), ids(TopKSelector.selectRange(products, TopKSelector.prices(products, true), 1, 3)));
+    }
+
+    @Test
+    public void testSelectRange_OutOfRange() {
+        List<Product> products = List.of(product(1, 2.0), product(2, 1.0));
+
+        assertTrue(TopKSelector.selectRange(products, TopKSelector.prices(products, false), 2, 10).isEmpty());
+        assertTrue(TopKSelector.selectRange(products, TopKSelector.prices(products, false), 1, 1).isEmpty());
+        assertEquals(List.of(1L), ids(TopKSelector.selectRange(products, TopKSelector.prices(products, false), 1, 10)));
+        assertTrue(TopKSelector.selectRange(new ArrayList<>(), new double[0], 0, 10).isEmpty());
+    }
+
+    private static List<Product> fullSort(List<Product> products, boolean descending) {
+        Comparator<Product> byPrice = Comparator.comparingDouble(Product::getPrice);
+        List<Product> sorted = new ArrayList<>(products);
+        // List.sort is stable, so ties stay in input order either way
+        sorted.sort(descending ? byPrice.reversed() : byPrice);
+        return sorted;
+    }
+
+    private static List<Product> products(Random random, int count, int distinctPrices) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(product(i, 10.0 * random.nextInt(distinctPrices)));
+        }
+        return products;
+    }
+
+    private static Product product(long id, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        return product;
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}